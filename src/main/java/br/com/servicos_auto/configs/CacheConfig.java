@@ -0,0 +1,37 @@
+package br.com.servicos_auto.configs;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Caches dos detalhes de anúncio e de prestador, por ID
+    public static final String ANUNCIOS = "anuncios";
+    public static final String PRESTADORES = "prestadores";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.detalhes.maximum-size:10000}") long maximumSize,
+            @Value("${cache.detalhes.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ANUNCIOS, PRESTADORES);
+        // recordStats alimenta as métricas cache.gets (hit/miss) e cache.evictions do Actuator
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        // Invalidações feitas dentro de uma transação só valem após o commit
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+}
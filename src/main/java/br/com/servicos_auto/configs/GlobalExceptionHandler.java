@@ -39,7 +39,7 @@ public class GlobalExceptionHandler {
     // Captura ResponseStatusException (ex: NOT_FOUND, CONFLICT, BAD_REQUEST)
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<String> handleResponseStatusException(ResponseStatusException ex) {
-        return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        return ResponseEntity.status(ex.getStatusCode()).headers(ex.getHeaders()).body(ex.getReason());
     }
 
     // Captura exceções genéricas, mas sem esconder o erro original
@@ -0,0 +1,10 @@
+package br.com.servicos_auto.configs;
+
+// Como o JwtTokenFilter monta a autenticação de cada requisição
+public enum JwtAuthMode {
+    // Usa apenas as claims verificadas do token (subject e roles), sem acessar o banco
+    STATELESS,
+    // Recarrega o usuário no banco a cada requisição (opcionalmente com cache de curta duração),
+    // para refletir remoções e mudanças de roles antes de o token expirar
+    DATABASE
+}
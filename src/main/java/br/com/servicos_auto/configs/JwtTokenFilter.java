@@ -1,13 +1,22 @@
 package br.com.servicos_auto.configs;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.authentication.CachingUserDetailsService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,16 +24,22 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 
 @Component
 public class JwtTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final JwtAuthMode authMode;
 
-    public JwtTokenFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtTokenFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+            @Value("${security.jwt.auth-mode:STATELESS}") JwtAuthMode authMode,
+            @Value("${security.jwt.principal-cache-ttl:0s}") Duration principalCacheTtl) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.authMode = authMode;
+        this.userDetailsService = withPrincipalCache(userDetailsService, principalCacheTtl);
     }
 
     @Override
@@ -40,20 +55,25 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         }
 
         String token = authorizationHeader.substring(7);
-        String username;
+        Claims claims;
 
         try {
-            username = jwtUtil.extractUsername(token);
+            // Único parse do token na requisição: assinatura e expiração são verificadas aqui
+            claims = jwtUtil.parseToken(token);
         } catch (Exception e) {
             logger.warn("JWT inválido ou expirado: " + e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
 
+        String username = claims.getSubject();
+
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = authMode == JwtAuthMode.STATELESS
+                    ? userFromClaims(claims, username)
+                    : userDetailsService.loadUserByUsername(username);
 
-            if (jwtUtil.validateToken(token, userDetails)) {
+            if (jwtUtil.validateToken(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -64,4 +84,24 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // A assinatura do token já foi verificada; as roles vêm da claim gravada no login
+    private UserDetails userFromClaims(Claims claims, String username) {
+        List<GrantedAuthority> authorities = jwtUtil.extractAuthorities(claims);
+        return new User(username, "", authorities);
+    }
+
+    // No modo DATABASE, um TTL positivo evita ir ao banco em toda requisição do mesmo usuário
+    private UserDetailsService withPrincipalCache(UserDetailsService delegate, Duration ttl) {
+        if (authMode != JwtAuthMode.DATABASE || ttl.isZero() || ttl.isNegative()) {
+            return delegate;
+        }
+        CaffeineCache cache = new CaffeineCache("jwtPrincipals", Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .build());
+        CachingUserDetailsService cachingService = new CachingUserDetailsService(delegate);
+        cachingService.setUserCache(new SpringCacheBasedUserCache(cache));
+        return cachingService;
+    }
+
 }
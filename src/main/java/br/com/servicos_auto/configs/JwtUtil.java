@@ -2,14 +2,27 @@ package br.com.servicos_auto.configs;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
@@ -17,10 +30,30 @@ public class JwtUtil {
     private static final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256); // Chave secreta para assinar o token                                                                                      // token
     private static final long EXPIRATION_TIME = 86400000; // 24 horas em milissegundos
 
+    // O parser é imutável e thread-safe: é criado uma vez e compartilhado por todas as requisições
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(SECRET_KEY)
+            .build();
+
+    // Cache opcional de tokens já verificados, chaveado pelo SHA-256 do token; cada entrada
+    // expira junto com o próprio token. Null quando desligado (tamanho 0)
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtUtil(@Value("${security.jwt.verified-cache-size:0}") long verifiedCacheSize) {
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfter(new TokenExpiry())
+                        .build()
+                : null;
+    }
+
     // Gera o token JWT
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("roles", userDetails.getAuthorities()); // Adiciona as roles ao token
+        claims.put("roles", userDetails.getAuthorities().stream() // Adiciona as roles ao token
+                .map(GrantedAuthority::getAuthority)
+                .toList());
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername()) // Define o subject (email do usuário)
@@ -30,40 +63,69 @@ public class JwtUtil {
                 .compact();
     }
 
-    // Valida o token JWT
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    // Verifica assinatura e expiração uma única vez e devolve as claims do token.
+    // Lança JwtException se o token for inválido ou estiver expirado
+    public Claims parseToken(String token) {
+        if (verifiedTokens == null) {
+            return PARSER.parseClaimsJws(token).getBody();
+        }
+        String key = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims == null || isTokenExpired(claims)) {
+            claims = PARSER.parseClaimsJws(token).getBody();
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
     }
 
-    // Extrai o username (email) do token
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    // Valida as claims de um token já verificado contra o usuário carregado
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
-    // Verifica se o token expirou
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Extrai as roles gravadas no token
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList();
     }
 
-    // Extrai a data de expiração do token
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // Verifica se o token expirou
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    // Extrai uma informação específica do token
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
     }
 
-    // Extrai todas as informações do token
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Mantém cada token no cache somente até a sua expiração
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 
 }
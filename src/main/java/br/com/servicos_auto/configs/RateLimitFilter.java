@@ -0,0 +1,72 @@
+package br.com.servicos_auto.configs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Limite de taxa por grupo de rotas, logo depois do JwtTokenFilter: toda requisição consome do
+// balde do IP e, se autenticada, também do balde do usuário (email do token), de modo que
+// trocar de IP não contorna o limite do usuário nem um token usado de vários IPs ganha mais
+// fichas. Acima do limite responde 429 com Retry-After. Atrás de proxy, configure
+// server.forward-headers-strategy para que o IP seja o do cliente
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.rateLimiter = new RateLimiter(properties, meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        long wait = rateLimiter.tryAcquire(path, request.getRemoteAddr(), subject(), System.nanoTime());
+        if (wait == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Muitas requisicoes, tente novamente em " + retryAfter + "s");
+    }
+
+    // Usuário do token, ou null nas requisições anônimas
+    private static String subject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+}
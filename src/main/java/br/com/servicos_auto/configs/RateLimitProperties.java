@@ -0,0 +1,22 @@
+package br.com.servicos_auto.configs;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Limites de requisição por grupo de rotas (rate-limit.groups.<nome>.*): cada grupo permite
+// rajadas de até capacity requisições, repostas continuamente ao longo de period
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10m") Duration idleTtl,
+        @DefaultValue("100000") long maxBuckets,
+        Map<String, Group> groups) {
+
+    public record Group(List<String> paths, int capacity, Duration period) {
+    }
+
+}
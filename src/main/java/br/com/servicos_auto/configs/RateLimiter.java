@@ -0,0 +1,148 @@
+package br.com.servicos_auto.configs;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Token bucket por grupo de rotas e cliente, implementado como GCRA: o estado de cada balde é
+// um único AtomicLong com o instante teórico da próxima requisição (TAT), atualizado com CAS,
+// sem locks. Os baldes ficam em um cache Caffeine (concorrente, com lock striping), que
+// descarta os ociosos; um balde ocioso por idle-ttl já estaria cheio de novo
+public class RateLimiter {
+
+    private final List<Route> routes;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        Map<String, RateLimitProperties.Group> groups = properties.groups() == null ? Map.of() : properties.groups();
+        this.routes = new ArrayList<>(groups.size());
+        Duration longestPeriod = Duration.ZERO;
+        for (Map.Entry<String, RateLimitProperties.Group> entry : groups.entrySet()) {
+            RateLimitProperties.Group group = entry.getValue();
+            if (group.capacity() <= 0 || group.period() == null || group.period().isZero()) {
+                throw new IllegalArgumentException("rate-limit.groups." + entry.getKey()
+                        + ": capacity e period devem ser positivos");
+            }
+            routes.add(new Route(entry.getKey(), group, meterRegistry));
+            longestPeriod = group.period().compareTo(longestPeriod) > 0 ? group.period() : longestPeriod;
+        }
+        Duration idleTtl = properties.idleTtl().compareTo(longestPeriod) >= 0 ? properties.idleTtl() : longestPeriod;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxBuckets())
+                .expireAfterAccess(idleTtl)
+                .build();
+    }
+
+    // Consome uma ficha de cada grupo cujo padrão casa com o caminho, no balde do IP e, quando
+    // a requisição é autenticada (subject não nulo), também no balde do usuário. Retorna 0 quando a
+    // requisição pode seguir, ou quantos nanossegundos faltam para o balde esgotado liberar.
+    // Se um grupo recusa, as fichas já tiradas dos outros são devolvidas: uma requisição
+    // recusada não consome o limite de nenhum grupo
+    public long tryAcquire(String path, String ip, String subject, long now) {
+        if (routes.isEmpty()) {
+            return 0;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        List<Acquired> acquired = new ArrayList<>(routes.size());
+        for (Route route : routes) {
+            if (!route.matches(container)) {
+                continue;
+            }
+            long wait = acquire(route, "ip:" + ip, now, acquired);
+            if (wait == 0 && subject != null) {
+                wait = acquire(route, "u:" + subject, now, acquired);
+            }
+            if (wait > 0) {
+                route.rejected.increment();
+                acquired.forEach(Acquired::release);
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    private long acquire(Route route, String client, long now, List<Acquired> acquired) {
+        AtomicLong bucket = buckets.get(route.name + '|' + client, key -> new AtomicLong(now));
+        long wait = route.tryAcquire(bucket, now);
+        if (wait == 0) {
+            acquired.add(new Acquired(route, bucket));
+        }
+        return wait;
+    }
+
+    private record Acquired(Route route, AtomicLong bucket) {
+
+        void release() {
+            route.release(bucket);
+        }
+
+    }
+
+    private static final class Route {
+
+        private final String name;
+
+        private final List<PathPattern> patterns;
+
+        // Intervalo entre fichas e tolerância de rajada (capacity fichas), em nanossegundos
+        private final long emissionInterval;
+
+        private final long burst;
+
+        private final Counter rejected;
+
+        Route(String name, RateLimitProperties.Group group, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.patterns = group.paths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+            this.emissionInterval = Math.max(1, group.period().toNanos() / group.capacity());
+            this.burst = emissionInterval * group.capacity();
+            this.rejected = Counter.builder("http.server.rate-limited")
+                    .description("Requisicoes recusadas pelo limite de taxa")
+                    .tag("group", name)
+                    .register(meterRegistry);
+        }
+
+        boolean matches(PathContainer path) {
+            for (PathPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long tryAcquire(AtomicLong bucket, long now) {
+            while (true) {
+                long tat = bucket.get();
+                long next = Math.max(tat, now) + emissionInterval;
+                long allowedAt = next - burst;
+                if (allowedAt > now) {
+                    return allowedAt - now;
+                }
+                if (bucket.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        // Devolve uma ficha: recua o TAT em um intervalo (se já passou de now, o max de tryAcquire ignora)
+        void release(AtomicLong bucket) {
+            bucket.addAndGet(-emissionInterval);
+        }
+
+    }
+
+}
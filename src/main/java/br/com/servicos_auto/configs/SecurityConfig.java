@@ -1,5 +1,7 @@
 package br.com.servicos_auto.configs;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,20 +18,21 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import br.com.servicos_auto.services.CustomUserDetailsService;
-
 import java.util.Arrays;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
-    private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final JwtTokenFilter jwtTokenFilter;
 
-    public SecurityConfig(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
-        this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+    private final RateLimitFilter rateLimitFilter;
+
+    public SecurityConfig(JwtTokenFilter jwtTokenFilter, RateLimitFilter rateLimitFilter) {
+        this.jwtTokenFilter = jwtTokenFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -44,6 +47,10 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/docs", "/docs/**")
                         .permitAll()
 
+                        // Actuator: health é público, métricas e caches só para ADMIN
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
+
                         // Cadastro de usuários e prestadores (público)
                         .requestMatchers(HttpMethod.POST, "/api/usuarios").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/prestadores").permitAll()
@@ -52,6 +59,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/usuarios/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/prestadores/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/anuncios/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll()
 
                         // Qualquer usuário autenticado pode atualizar/deletar usuário e prestador
                         .requestMatchers(HttpMethod.PATCH, "/api/usuarios/{id}").authenticated()
@@ -60,6 +68,12 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/prestadores/{id}").authenticated()
                         .requestMatchers(HttpMethod.POST, "/api/usuarios/{usuarioId}/upload-image").authenticated()
                         .requestMatchers(HttpMethod.POST, "/api/prestadores/{prestadorId}/upload-image").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/usuarios/{usuarioId}/upload-image/async").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/prestadores/{prestadorId}/upload-image/async")
+                        .authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/usuarios/{usuarioId}/upload-image/stream").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/prestadores/{prestadorId}/upload-image/stream")
+                        .authenticated()
 
                         // Somente PRESTADOR_SERVICO pode criar, atualizar, deletar anúncios e enviar
                         // imagens
@@ -69,18 +83,48 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/anuncios/{id}").hasAuthority("PRESTADOR_SERVICO")
                         .requestMatchers(HttpMethod.POST, "/api/anuncios/{id}/upload-image")
                         .hasAuthority("PRESTADOR_SERVICO")
+                        .requestMatchers(HttpMethod.POST, "/api/anuncios/{id}/upload-image/async")
+                        .hasAuthority("PRESTADOR_SERVICO")
+                        .requestMatchers(HttpMethod.POST, "/api/anuncios/{id}/upload-images")
+                        .hasAuthority("PRESTADOR_SERVICO")
+                        .requestMatchers(HttpMethod.POST, "/api/anuncios/{id}/upload-image/stream")
+                        .hasAuthority("PRESTADOR_SERVICO")
+
+                        // Importação em lote de prestadores e anúncios
+                        .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
 
                         // Qualquer outra requisição precisa estar autenticada
                         .anyRequest().authenticated())
-                .addFilterBefore(new JwtTokenFilter(jwtUtil, userDetailsService),
-                        UsernamePasswordAuthenticationFilter.class); // Adiciona o filtro JWT
+                .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class) // Adiciona o filtro JWT
+                .addFilterAfter(rateLimitFilter, JwtTokenFilter.class); // Limite de taxa, já sabendo quem é o usuário
 
         return http.build();
     }
 
+    // Os filtros JWT e de limite de taxa rodam apenas dentro da cadeia do Spring Security, e não também como
+    // filtros do servlet
+    @Bean
+    public FilterRegistrationBean<JwtTokenFilter> jwtTokenFilterRegistration() {
+        FilterRegistrationBean<JwtTokenFilter> registration = new FilterRegistrationBean<>(jwtTokenFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    // O RateLimitFilter roda só dentro da cadeia do Spring Security, depois do JwtTokenFilter;
+    // sem isto o Boot também o registraria como filtro do servlet, antes da autenticação
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    // Usa BCrypt para codificar senhas. Ao aumentar bcrypt-strength, os hashes antigos são
+    // refeitos com o novo custo no próximo login (CustomUserDetailsService.updatePassword)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Usa BCrypt para codificar senhas
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength,
+            MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,26 @@
+package br.com.servicos_auto.configs;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// 503 com Retry-After, usado quando uma fila limitada está cheia e a requisição é descartada
+public class ServiceUnavailableException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String reason, Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        return headers;
+    }
+
+}
@@ -0,0 +1,50 @@
+package br.com.servicos_auto.configs;
+
+import java.util.function.Supplier;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Mede o tempo gasto pelo BCrypt (métrica auth.password.hash, op=encode|matches): é o que
+// dita a capacidade do login e o efeito de mudar security.password.bcrypt-strength
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record((Supplier<String>) () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Hashes com custo menor que o configurado são refeitos no próximo login bem-sucedido
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String op) {
+        return Timer.builder("auth.password.hash")
+                .description("Tempo de hash/verificacao de senha")
+                .tag("op", op)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+}
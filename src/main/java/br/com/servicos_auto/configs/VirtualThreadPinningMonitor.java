@@ -0,0 +1,76 @@
+package br.com.servicos_auto.configs;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+// Diagnóstico de virtual threads presas à thread carrier (bloqueio dentro de synchronized
+// ou de código nativo), que anulam o ganho das virtual threads. Escuta o evento JFR
+// jdk.VirtualThreadPinned, registra a pilha no log e conta em jvm.threads.virtual.pinned
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int STACK_DEPTH = 8;
+
+    private final Duration threshold;
+
+    private final Counter pinned;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${threads.virtual.pinned-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads que bloquearam presas a carrier por mais que o limite")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Monitor de virtual threads presas ativo (limite {})", threshold);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        String stack = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                .limit(STACK_DEPTH)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n\tat "));
+        logger.warn("Virtual thread presa a carrier por {} ms\n\tat {}", event.getDuration().toMillis(), stack);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package br.com.servicos_auto.configs;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+// Threads dos pools internos (uploads assíncronos, uploads em lote, variantes). Com
+// spring.threads.virtual.enabled=true passam a ser virtuais, como as do Tomcat; o tamanho
+// de cada pool continua limitando quantas tarefas rodam ao mesmo tempo
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    public WorkerThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory factory(String prefix) {
+        return virtual ? Thread.ofVirtual().name(prefix, 1).factory() : new CustomizableThreadFactory(prefix);
+    }
+
+}
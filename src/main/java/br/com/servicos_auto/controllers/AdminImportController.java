@@ -0,0 +1,37 @@
+package br.com.servicos_auto.controllers;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.servicos_auto.models.ImportResultDTO;
+import br.com.servicos_auto.services.BulkImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+
+// Importação em lote (somente ADMIN): o corpo é lido em streaming, sem carregar o arquivo em memória
+@RestController
+@RequestMapping("/api/admin/import")
+public class AdminImportController {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Operation(summary = "Importa prestadores em lote", description = "CSV com cabeçalho (nome,email,cpf,cnpj,senha) ou NDJSON com os mesmos campos. Responde com o total importado e os erros de cada linha.", security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping(value = "/prestadores", consumes = { BulkImportService.CSV, BulkImportService.NDJSON })
+    public ResponseEntity<ImportResultDTO> importPrestadores(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importPrestadores(request.getInputStream(), request.getContentType()));
+    }
+
+    @Operation(summary = "Importa anúncios em lote", description = "CSV com cabeçalho (prestadorId,prestadorEmail,titulo,descricao) ou NDJSON com os mesmos campos; o prestador é indicado pelo ID ou pelo email. Responde com o total importado e os erros de cada linha.", security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping(value = "/anuncios", consumes = { BulkImportService.CSV, BulkImportService.NDJSON })
+    public ResponseEntity<ImportResultDTO> importAnuncios(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importAnuncios(request.getInputStream(), request.getContentType()));
+    }
+
+}
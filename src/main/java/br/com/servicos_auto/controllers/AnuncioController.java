@@ -1,9 +1,12 @@
 package br.com.servicos_auto.controllers;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,11 +24,18 @@ import br.com.servicos_auto.models.Anuncio;
 import br.com.servicos_auto.models.AnuncioDTO;
 import br.com.servicos_auto.models.Image;
 import br.com.servicos_auto.models.ImageDTO;
+import br.com.servicos_auto.models.ImageOwner;
+import br.com.servicos_auto.models.ImageUploadResultDTO;
+import br.com.servicos_auto.models.PageResponse;
+import br.com.servicos_auto.models.UploadJobDTO;
 import br.com.servicos_auto.services.AnuncioService;
 import br.com.servicos_auto.services.ImageService;
+import br.com.servicos_auto.services.UploadJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -38,15 +48,43 @@ public class AnuncioController {
     @Autowired
     private ImageService imageService;
 
+    @Autowired
+    private UploadJobService uploadJobService;
+
     @GetMapping
-    public ResponseEntity<List<AnuncioDTO>> findAll() {
-        List<AnuncioDTO> anuncios = anuncioService.findAll();
+    public ResponseEntity<PageResponse<AnuncioDTO>> findAll(
+            @Parameter(description = "Quantidade maxima de itens na pagina (1 a 100)") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Cursor devolvido em nextCursor pela pagina anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenacao: recentes ou antigos") @RequestParam(defaultValue = "recentes") String sort,
+            @Parameter(description = "Inclui registros excluidos (somente ADMIN)") @RequestParam(defaultValue = "false") boolean includeDeleted) {
+        PageResponse<AnuncioDTO> anuncios = anuncioService.findAll(limit, cursor, sort, includeDeleted);
+        return ResponseEntity.ok(anuncios);
+    }
+
+    @Operation(summary = "Busca anúncios por texto", description = "Busca textual no título e na descrição, com stemming em português e sem diferenciar acentos. Resultados ordenados por relevância.")
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<AnuncioDTO>> search(
+            @Parameter(description = "Texto da busca", required = true) @RequestParam String q,
+            @Parameter(description = "Quantidade maxima de itens na pagina (1 a 100)") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Cursor devolvido em nextCursor pela pagina anterior") @RequestParam(required = false) String cursor) {
+        PageResponse<AnuncioDTO> anuncios = anuncioService.search(q, limit, cursor);
         return ResponseEntity.ok(anuncios);
     }
 
+    @Operation(summary = "Exporta o catálogo de anúncios", description = "NDJSON (um anúncio por linha) em ordem de ID, enviado aos poucos. Para retomar uma exportação interrompida, informe em afterId o ID da última linha recebida.")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void export(
+            @Parameter(description = "Exporta apenas anúncios com ID maior que este") @RequestParam(defaultValue = "0") long afterId,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        anuncioService.export(afterId, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<AnuncioDTO> findById(@PathVariable Long id) {
-        AnuncioDTO anuncio = anuncioService.findById(id);
+    public ResponseEntity<AnuncioDTO> findById(@PathVariable Long id,
+            @Parameter(description = "Inclui registros excluidos (somente ADMIN)") @RequestParam(defaultValue = "false") boolean includeDeleted) {
+        AnuncioDTO anuncio = anuncioService.findById(id, includeDeleted);
         return ResponseEntity.ok(anuncio);
     }
 
@@ -81,11 +119,8 @@ public class AnuncioController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
             }
 
-            // Verifica se o tipo MIME é nulo ou não é uma imagem
-            String contentType = file.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-            }
+            // Verifica se o tipo MIME é uma imagem (400 caso contrário)
+            imageService.assertImage(file);
 
             // Faz o upload da imagem
             Image image = imageService.uploadAnuncioImage(file, AnuncioId);
@@ -101,4 +136,36 @@ public class AnuncioController {
         }
     }
 
+    // Endpoint para upload de várias imagens de um Anuncio em uma única requisição;
+    // responde com o resultado de cada arquivo
+    @Operation(summary = "Upload de várias imagens do anúncio", description = "Envia os arquivos ao Imgur em paralelo e grava as imagens em lote. Arquivos que falham não impedem os demais.", security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/{AnuncioId}/upload-images")
+    public ResponseEntity<List<ImageUploadResultDTO>> uploadImages(@PathVariable Long AnuncioId,
+            @RequestParam("files") List<MultipartFile> files) {
+        return ResponseEntity.ok(imageService.uploadBatch(ImageOwner.ANUNCIO, AnuncioId, files));
+    }
+
+    // Endpoint para upload de imagem em streaming para um Anuncio específico: o corpo da requisição
+    // é a própria imagem (Content-Type image/*), sem multipart
+    @Operation(summary = "Upload de imagem em streaming", description = "Envie os bytes da imagem como corpo da requisição, com Content-Type image/*. Acima de uploads.stream.max-size responde 413.", security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping(value = "/{AnuncioId}/upload-image/stream", consumes = "image/*")
+    public ResponseEntity<ImageDTO> uploadImageStream(@PathVariable Long AnuncioId, HttpServletRequest request)
+            throws IOException {
+        Image image = imageService.uploadStream(ImageOwner.ANUNCIO, AnuncioId, request.getInputStream(),
+                request.getContentType(), request.getContentLengthLong());
+        return ResponseEntity.ok(new ImageDTO(image));
+    }
+
+    // Endpoint para upload assíncrono de imagem para um Anuncio específico: responde 202 e o
+    // resultado é consultado em GET /api/uploads/{jobId}
+    @Operation(summary = "Upload assíncrono de imagem", description = "Enfileira o envio e retorna o job; 503 com Retry-After quando a fila está cheia.", security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/{AnuncioId}/upload-image/async")
+    public ResponseEntity<UploadJobDTO> uploadImageAsync(@PathVariable Long AnuncioId,
+            @RequestParam("file") MultipartFile file) {
+        UploadJobDTO job = uploadJobService.submit(file, ImageOwner.ANUNCIO, AnuncioId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/uploads/" + job.getJobId()))
+                .body(job);
+    }
+
 }
@@ -1,46 +1,35 @@
 package br.com.servicos_auto.controllers;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import br.com.servicos_auto.configs.JwtUtil;
 import br.com.servicos_auto.models.LoginRequest;
 import br.com.servicos_auto.models.LoginResponse;
+import br.com.servicos_auto.services.LoginService;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
-    private final JwtUtil jwtUtil;
+    private final LoginService loginService;
 
-    public AuthController(AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
-        this.authenticationManager = authenticationManager;
-        this.jwtUtil = jwtUtil;
+    public AuthController(LoginService loginService) {
+        this.loginService = loginService;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest loginRequest) {
-
-        // Autentica o usuário
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getSenha()));
-
-        // Obtém os detalhes do usuário autenticado
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-
-        // Gera o token JWT
-        String token = jwtUtil.generateToken(userDetails);
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest loginRequest) {
 
-        // Retorna o token no corpo da resposta com status 200 (OK)
-        return ResponseEntity.ok(new LoginResponse(token));
+        // Autentica o usuário e gera o token JWT no pool de login (503 quando a fila está cheia
+        // ou no timeout); a thread do Tomcat é liberada até o resultado ficar pronto
+        return loginService.login(loginRequest.getEmail(), loginRequest.getSenha())
+                // Retorna o token no corpo da resposta com status 200 (OK)
+                .thenApply(token -> ResponseEntity.ok(new LoginResponse(token)));
     }
 
 }
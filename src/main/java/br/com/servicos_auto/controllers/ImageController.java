@@ -0,0 +1,46 @@
+package br.com.servicos_auto.controllers;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.servicos_auto.models.ImageVariant;
+import br.com.servicos_auto.services.ImageService;
+import io.swagger.v3.oas.annotations.Operation;
+
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    // Arquivos endereçados pelo conteúdo nunca mudam na mesma URL
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    @Autowired
+    private ImageService imageService;
+
+    // O Spring responde 304 quando o If-None-Match bate com o ETag e 206 para requisições
+    // com Range, lendo do arquivo apenas o trecho pedido, em streaming
+    @Operation(summary = "Serve uma imagem", description = "variant: original, medium ou thumbnail. Imagens fora do armazenamento local são redirecionadas.")
+    @GetMapping("/{id}/{variant}")
+    public ResponseEntity<Resource> serve(@PathVariable Long id, @PathVariable String variant) {
+        ImageService.ServedImage served = imageService.serve(id, ImageVariant.fromParam(variant));
+        if (served.redirectUrl() != null) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(served.redirectUrl())).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(served.etag())
+                .cacheControl(IMMUTABLE)
+                .contentType(served.mediaType())
+                .body(served.resource());
+    }
+
+}
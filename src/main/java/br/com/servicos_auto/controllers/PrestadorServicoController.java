@@ -1,6 +1,7 @@
 package br.com.servicos_auto.controllers;
 
-import java.util.List;
+import java.io.IOException;
+import java.net.URI;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -13,11 +14,17 @@ import org.springframework.web.server.ResponseStatusException;
 
 import br.com.servicos_auto.models.Image;
 import br.com.servicos_auto.models.ImageDTO;
+import br.com.servicos_auto.models.ImageOwner;
+import br.com.servicos_auto.models.PageResponse;
 import br.com.servicos_auto.models.PrestadorServico;
 import br.com.servicos_auto.models.PrestadorServicoDTO;
+import br.com.servicos_auto.models.UploadJobDTO;
 import br.com.servicos_auto.services.ImageService;
 import br.com.servicos_auto.services.PrestadorServicoService;
+import br.com.servicos_auto.services.UploadJobService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -37,17 +44,25 @@ public class PrestadorServicoController {
     @Autowired
     private ImageService imageService;
 
+    @Autowired
+    private UploadJobService uploadJobService;
+
     @GetMapping
-    public ResponseEntity<List<PrestadorServicoDTO>> findAll() {
+    public ResponseEntity<PageResponse<PrestadorServicoDTO>> findAll(
+            @Parameter(description = "Quantidade maxima de itens na pagina (1 a 100)") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Cursor devolvido em nextCursor pela pagina anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenacao: recentes ou antigos") @RequestParam(defaultValue = "recentes") String sort,
+            @Parameter(description = "Inclui registros excluidos (somente ADMIN)") @RequestParam(defaultValue = "false") boolean includeDeleted) {
 
-        List<PrestadorServicoDTO> prestadores = prestadorServicoService.findall();
+        PageResponse<PrestadorServicoDTO> prestadores = prestadorServicoService.findall(limit, cursor, sort, includeDeleted);
         return ResponseEntity.ok(prestadores);
 
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PrestadorServicoDTO> findById(@PathVariable Long id) {
-        PrestadorServicoDTO prestador = prestadorServicoService.findById(id);
+    public ResponseEntity<PrestadorServicoDTO> findById(@PathVariable Long id,
+            @Parameter(description = "Inclui registros excluidos (somente ADMIN)") @RequestParam(defaultValue = "false") boolean includeDeleted) {
+        PrestadorServicoDTO prestador = prestadorServicoService.findById(id, includeDeleted);
         return ResponseEntity.ok(prestador);
     }
 
@@ -85,11 +100,8 @@ public class PrestadorServicoController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
             }
 
-            // Verifica se o tipo MIME é nulo ou não é uma imagem
-            String contentType = file.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-            }
+            // Verifica se o tipo MIME é uma imagem (400 caso contrário)
+            imageService.assertImage(file);
 
             // Faz o upload da imagem
             Image image = imageService.uploadPrestadorImage(file, prestadorId);
@@ -106,4 +118,27 @@ public class PrestadorServicoController {
 
     }
 
+    // Endpoint para upload de imagem em streaming para um prestador de serviço específico: o corpo da requisição
+    // é a própria imagem (Content-Type image/*), sem multipart
+    @Operation(summary = "Upload de imagem em streaming", description = "Envie os bytes da imagem como corpo da requisição, com Content-Type image/*. Acima de uploads.stream.max-size responde 413.")
+    @PostMapping(value = "/{prestadorId}/upload-image/stream", consumes = "image/*")
+    public ResponseEntity<ImageDTO> uploadImageStream(@PathVariable Long prestadorId, HttpServletRequest request)
+            throws IOException {
+        Image image = imageService.uploadStream(ImageOwner.PRESTADOR_SERVICO, prestadorId, request.getInputStream(),
+                request.getContentType(), request.getContentLengthLong());
+        return ResponseEntity.ok(new ImageDTO(image));
+    }
+
+    // Endpoint para upload assíncrono de imagem para um prestador de serviço específico: responde 202 e o
+    // resultado é consultado em GET /api/uploads/{jobId}
+    @Operation(summary = "Upload assíncrono de imagem", description = "Enfileira o envio e retorna o job; 503 com Retry-After quando a fila está cheia.")
+    @PostMapping("/{prestadorId}/upload-image/async")
+    public ResponseEntity<UploadJobDTO> uploadImageAsync(@PathVariable Long prestadorId,
+            @RequestParam("file") MultipartFile file) {
+        UploadJobDTO job = uploadJobService.submit(file, ImageOwner.PRESTADOR_SERVICO, prestadorId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/uploads/" + job.getJobId()))
+                .body(job);
+    }
+
 }
@@ -0,0 +1,28 @@
+package br.com.servicos_auto.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.servicos_auto.models.UploadJobDTO;
+import br.com.servicos_auto.services.UploadJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+
+@RestController
+@RequestMapping("/api/uploads")
+public class UploadController {
+
+    @Autowired
+    private UploadJobService uploadJobService;
+
+    @Operation(summary = "Consulta um upload assíncrono", description = "Retorna o status do job e, quando concluído, a imagem gravada. Somente quem enviou o arquivo ou um ADMIN pode consultar.", security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/{jobId}")
+    public ResponseEntity<UploadJobDTO> findById(@PathVariable String jobId) {
+        return ResponseEntity.ok(uploadJobService.findById(jobId));
+    }
+
+}
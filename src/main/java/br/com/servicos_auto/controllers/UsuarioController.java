@@ -1,6 +1,7 @@
 package br.com.servicos_auto.controllers;
 
-import java.util.List;
+import java.io.IOException;
+import java.net.URI;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,10 +20,17 @@ import org.springframework.web.server.ResponseStatusException;
 
 import br.com.servicos_auto.models.Image;
 import br.com.servicos_auto.models.ImageDTO;
+import br.com.servicos_auto.models.ImageOwner;
+import br.com.servicos_auto.models.PageResponse;
+import br.com.servicos_auto.models.UploadJobDTO;
 import br.com.servicos_auto.models.Usuario;
 import br.com.servicos_auto.models.UsuarioDTO;
 import br.com.servicos_auto.services.ImageService;
+import br.com.servicos_auto.services.UploadJobService;
 import br.com.servicos_auto.services.UsuarioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -35,17 +43,25 @@ public class UsuarioController {
     @Autowired
     private ImageService imageService;
 
-    // Endpoint para listar todos os usuários
+    @Autowired
+    private UploadJobService uploadJobService;
+
+    // Endpoint para listar os usuários, paginado por cursor
     @GetMapping
-    public ResponseEntity<List<UsuarioDTO>> findAll() {
-        List<UsuarioDTO> usuarios = usuarioService.findAll();
+    public ResponseEntity<PageResponse<UsuarioDTO>> findAll(
+            @Parameter(description = "Quantidade maxima de itens na pagina (1 a 100)") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Cursor devolvido em nextCursor pela pagina anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenacao: recentes ou antigos") @RequestParam(defaultValue = "recentes") String sort,
+            @Parameter(description = "Inclui registros excluidos (somente ADMIN)") @RequestParam(defaultValue = "false") boolean includeDeleted) {
+        PageResponse<UsuarioDTO> usuarios = usuarioService.findAll(limit, cursor, sort, includeDeleted);
         return ResponseEntity.ok(usuarios);
     }
 
     // Endpoint para buscar um usuário por ID
     @GetMapping("/{id}")
-    public ResponseEntity<UsuarioDTO> findById(@PathVariable Long id) {
-        UsuarioDTO usuario = usuarioService.findById(id);
+    public ResponseEntity<UsuarioDTO> findById(@PathVariable Long id,
+            @Parameter(description = "Inclui registros excluidos (somente ADMIN)") @RequestParam(defaultValue = "false") boolean includeDeleted) {
+        UsuarioDTO usuario = usuarioService.findById(id, includeDeleted);
         return ResponseEntity.ok(usuario);
     }
 
@@ -80,11 +96,8 @@ public class UsuarioController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
             }
 
-            // Verifica se o tipo MIME é nulo ou não é uma imagem
-            String contentType = file.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-            }
+            // Verifica se o tipo MIME é uma imagem (400 caso contrário)
+            imageService.assertImage(file);
 
             // Faz o upload da imagem
             Image image = imageService.uploadUsuarioImage(file, usuarioId);
@@ -100,4 +113,27 @@ public class UsuarioController {
         }
     }
 
+    // Endpoint para upload de imagem em streaming para um usuário específico: o corpo da requisição
+    // é a própria imagem (Content-Type image/*), sem multipart
+    @Operation(summary = "Upload de imagem em streaming", description = "Envie os bytes da imagem como corpo da requisição, com Content-Type image/*. Acima de uploads.stream.max-size responde 413.")
+    @PostMapping(value = "/{usuarioId}/upload-image/stream", consumes = "image/*")
+    public ResponseEntity<ImageDTO> uploadImageStream(@PathVariable Long usuarioId, HttpServletRequest request)
+            throws IOException {
+        Image image = imageService.uploadStream(ImageOwner.USUARIO, usuarioId, request.getInputStream(),
+                request.getContentType(), request.getContentLengthLong());
+        return ResponseEntity.ok(new ImageDTO(image));
+    }
+
+    // Endpoint para upload assíncrono de imagem para um usuário específico: responde 202 e o
+    // resultado é consultado em GET /api/uploads/{jobId}
+    @Operation(summary = "Upload assíncrono de imagem", description = "Enfileira o envio e retorna o job; 503 com Retry-After quando a fila está cheia.")
+    @PostMapping("/{usuarioId}/upload-image/async")
+    public ResponseEntity<UploadJobDTO> uploadImageAsync(@PathVariable Long usuarioId,
+            @RequestParam("file") MultipartFile file) {
+        UploadJobDTO job = uploadJobService.submit(file, ImageOwner.USUARIO, usuarioId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/uploads/" + job.getJobId()))
+                .body(job);
+    }
+
 }
@@ -4,6 +4,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,10 +18,16 @@ import lombok.Data;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_anuncio_created_at_id", columnList = "created_at, id"))
+// Definição do filtro de soft delete, usado também por PrestadorServico e Usuario
+@FilterDef(name = SoftDelete.FILTER)
+@Filter(name = SoftDelete.FILTER, condition = SoftDelete.CONDITION)
 public class Anuncio {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence com otimizador pooled: o Hibernate reserva blocos de 50 IDs e consegue agrupar os INSERTs
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "anuncio_seq")
+    @SequenceGenerator(name = "anuncio_seq", sequenceName = "anuncio_seq", allocationSize = 50)
     @Schema(description = "ID do anúncio", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
@@ -32,10 +42,11 @@ public class Anuncio {
     private String descricao;
 
     @OneToMany(mappedBy = "anuncio", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100) // Carrega as imagens de vários anúncios em um único SELECT
     @Schema(hidden = true)
     private List<Image> images = new ArrayList<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // O DTO só precisa do ID, que o proxy já conhece
     @JoinColumn(name = "prestador_servico_id", nullable = false)
     @JsonIgnore
     @Schema(hidden = true)
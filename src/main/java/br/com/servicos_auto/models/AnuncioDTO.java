@@ -1,6 +1,7 @@
 package br.com.servicos_auto.models;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +20,20 @@ public class AnuncioDTO {
     private LocalDateTime deletedAt;
     private List<ImageDTO> images;
 
+    // Usado pelas projeções JPQL; as imagens são preenchidas depois, em um único SELECT
+    public AnuncioDTO(Long id, String titulo, String descricao, Long prestadorServicoId, LocalDateTime createdAt,
+            LocalDateTime updatedAt, LocalDateTime deletedAt) {
+        this.id = id;
+        this.titulo = titulo;
+        this.descricao = descricao;
+        this.prestadorServicoId = prestadorServicoId;
+        this.deleted = deletedAt != null;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.deletedAt = deletedAt;
+        this.images = new ArrayList<>();
+    }
+
     public AnuncioDTO(Anuncio anuncio) {
         this.id = anuncio.getId();
         this.titulo = anuncio.getTitulo();
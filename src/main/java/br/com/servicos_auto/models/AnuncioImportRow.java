@@ -0,0 +1,22 @@
+package br.com.servicos_auto.models;
+
+import lombok.Data;
+
+// Linha da importação em lote de anúncios. O prestador é indicado pelo ID ou, quando o ID
+// ainda não é conhecido (prestadores importados no mesmo onboarding), pelo email
+@Data
+public class AnuncioImportRow {
+
+    private Long prestadorId;
+    private String prestadorEmail;
+    private String titulo;
+    private String descricao;
+
+    public Anuncio toEntity() {
+        Anuncio anuncio = new Anuncio();
+        anuncio.setTitulo(titulo);
+        anuncio.setDescricao(descricao);
+        return anuncio;
+    }
+
+}
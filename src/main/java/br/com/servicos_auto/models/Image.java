@@ -10,15 +10,28 @@ import lombok.Data;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_image_content_hash", columnList = "content_hash"))
 public class Image {
 
+    // Sequence com blocos de 50 IDs: com IDENTITY o Hibernate não consegue agrupar os
+    // INSERTs em lote (precisa do ID gerado de cada linha)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_seq")
+    @SequenceGenerator(name = "image_seq", sequenceName = "image_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "A URL da imagem é obrigatória")
     private String url;
 
+    @Column(name = "storage_backend")
+    private String storageBackend; // Backend onde o conteúdo está (imgur ou local); nulo nas imagens antigas do Imgur
+
+    @Column(name = "storage_key")
+    private String storageKey; // Identificador do conteúdo no backend
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 do conteúdo, usado para deduplicar uploads
+
     @Column(name = "imgur_id")
     private String imgurId; // ID da imagem no Imgur
 
@@ -28,19 +41,32 @@ public class Image {
     @Column(name = "type")
     private String type; // Tipo da imagem (ex: "image/jpeg")
 
+    // Variantes reduzidas (sem EXIF), geradas em segundo plano depois do upload; nulas até ficarem prontas
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    @Column(name = "thumbnail_key")
+    private String thumbnailKey;
+
+    @Column(name = "medium_url")
+    private String mediumUrl;
+
+    @Column(name = "medium_key")
+    private String mediumKey;
+
     @Column(name = "uploaded_at")
     private LocalDateTime uploadedAt; // Data e hora do upload no Imgur
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id")
     @JsonBackReference
     private Usuario usuario;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "prestador_servico_id")
     private PrestadorServico prestadorServico;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "anuncio_id")
     private Anuncio anuncio;
 
@@ -12,15 +12,31 @@ public class ImageDTO {
     private String imgurId;
     private String imgurDeletehash;
     private String type;
+    private String thumbnailUrl;
+    private String mediumUrl;
     private LocalDateTime uploadedAt;
 
+    public ImageDTO(Long id, String url, String imgurId, String imgurDeletehash, String type,
+            String thumbnailUrl, String mediumUrl, String storageBackend, LocalDateTime uploadedAt) {
+        this.id = id;
+        this.url = url;
+        this.imgurId = imgurId;
+        this.imgurDeletehash = imgurDeletehash;
+        this.type = type;
+        this.thumbnailUrl = thumbnailUrl;
+        this.mediumUrl = mediumUrl;
+        this.uploadedAt = uploadedAt;
+        // Imagens do armazenamento local são servidas por GET /api/images/{id}/{variant}
+        if ("local".equals(storageBackend)) {
+            this.url = ImageVariant.ORIGINAL.localUrl(id);
+            this.thumbnailUrl = thumbnailUrl != null ? ImageVariant.THUMBNAIL.localUrl(id) : null;
+            this.mediumUrl = mediumUrl != null ? ImageVariant.MEDIUM.localUrl(id) : null;
+        }
+    }
+
     public ImageDTO(Image image) {
-        this.id = image.getId();
-        this.url = image.getUrl();
-        this.imgurId = image.getImgurId();
-        this.imgurDeletehash = image.getImgurDeletehash();
-        this.type = image.getType();
-        this.uploadedAt = image.getUploadedAt();
+        this(image.getId(), image.getUrl(), image.getImgurId(), image.getImgurDeletehash(), image.getType(),
+                image.getThumbnailUrl(), image.getMediumUrl(), image.getStorageBackend(), image.getUploadedAt());
     }
 
 }
@@ -0,0 +1,8 @@
+package br.com.servicos_auto.models;
+
+// Entidade à qual uma imagem enviada é vinculada
+public enum ImageOwner {
+    USUARIO,
+    PRESTADOR_SERVICO,
+    ANUNCIO
+}
@@ -0,0 +1,24 @@
+package br.com.servicos_auto.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Resultado de um arquivo dentro de um upload em lote
+@Data
+@AllArgsConstructor
+public class ImageUploadResultDTO {
+
+    private String filename;
+    private boolean sucesso;
+    private ImageDTO image;
+    private String erro;
+
+    public static ImageUploadResultDTO ok(String filename, Image image) {
+        return new ImageUploadResultDTO(filename, true, new ImageDTO(image), null);
+    }
+
+    public static ImageUploadResultDTO falha(String filename, String erro) {
+        return new ImageUploadResultDTO(filename, false, null, erro);
+    }
+
+}
@@ -0,0 +1,35 @@
+package br.com.servicos_auto.models;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Versões de uma imagem servidas em GET /api/images/{id}/{variant}
+public enum ImageVariant {
+    ORIGINAL("original"),
+    MEDIUM("medium"),
+    THUMBNAIL("thumbnail");
+
+    private final String param;
+
+    ImageVariant(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    // URL servida pela aplicação para imagens do armazenamento local
+    public String localUrl(Long imageId) {
+        return "/api/images/" + imageId + "/" + param;
+    }
+
+    public static ImageVariant fromParam(String param) {
+        for (ImageVariant variant : values()) {
+            if (variant.param.equalsIgnoreCase(param)) {
+                return variant;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Variante invalida: " + param);
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.servicos_auto.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Resultado de uma importação em lote: linhas lidas, importadas e as falhas de cada linha.
+// A lista de erros é limitada; falhas continua contando todas
+@Data
+public class ImportResultDTO {
+
+    private int total;
+    private int importados;
+    private int falhas;
+    private List<Erro> erros = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class Erro {
+
+        private long linha;
+        private String erro;
+
+    }
+
+}
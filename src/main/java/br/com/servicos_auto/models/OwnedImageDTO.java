@@ -0,0 +1,30 @@
+package br.com.servicos_auto.models;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.Data;
+
+// Linha da projeção de imagens: a imagem e o ID do dono (usuário, prestador ou anúncio)
+@Data
+public class OwnedImageDTO {
+
+    private final Long ownerId;
+    private final ImageDTO image;
+
+    public OwnedImageDTO(Long ownerId, Long id, String url, String imgurId, String imgurDeletehash, String type,
+            String thumbnailUrl, String mediumUrl, String storageBackend, LocalDateTime uploadedAt) {
+        this.ownerId = ownerId;
+        this.image = new ImageDTO(id, url, imgurId, imgurDeletehash, type, thumbnailUrl, mediumUrl, storageBackend,
+                uploadedAt);
+    }
+
+    public static Map<Long, List<ImageDTO>> groupByOwner(List<OwnedImageDTO> rows) {
+        return rows.stream().collect(Collectors.groupingBy(OwnedImageDTO::getOwnerId, LinkedHashMap::new,
+                Collectors.mapping(OwnedImageDTO::getImage, Collectors.toList())));
+    }
+
+}
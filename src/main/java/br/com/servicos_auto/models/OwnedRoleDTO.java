@@ -0,0 +1,21 @@
+package br.com.servicos_auto.models;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.Data;
+
+// Linha da projeção de roles: a role e o ID do dono (usuário ou prestador)
+@Data
+public class OwnedRoleDTO {
+
+    private final Long ownerId;
+    private final Role role;
+
+    public static Map<Long, List<String>> groupByOwner(List<OwnedRoleDTO> rows) {
+        return rows.stream().collect(Collectors.groupingBy(OwnedRoleDTO::getOwnerId,
+                Collectors.mapping(row -> row.getRole().name(), Collectors.toList())));
+    }
+
+}
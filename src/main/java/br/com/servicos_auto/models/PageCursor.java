@@ -0,0 +1,55 @@
+package br.com.servicos_auto.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.Data;
+
+// Cursor opaco da paginação por keyset: codifica a posição (created_at, id) da
+// última linha devolvida, para que a próxima página continue a partir dela
+@Data
+public class PageCursor {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Retorna null quando nenhum cursor foi informado (primeira página)
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = raw.indexOf('|');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor sem separador");
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separador)),
+                    Long.valueOf(raw.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor invalido");
+        }
+    }
+
+    // Mantém o tamanho da página dentro dos limites aceitos
+    public static int normalizeLimit(int limit) {
+        if (limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+}
@@ -0,0 +1,33 @@
+package br.com.servicos_auto.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PageResponse<T> {
+
+    private List<T> content;
+    private String nextCursor;
+
+    // Monta a página a partir de uma consulta que buscou limit + 1 linhas: a linha
+    // extra só indica que existe uma próxima página e não é devolvida
+    public static <E, T> PageResponse<T> of(List<E> rows, int limit, Function<E, LocalDateTime> createdAt,
+            Function<E, Long> id, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> page = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            E last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(createdAt.apply(last), id.apply(last)).encode();
+        }
+
+        return new PageResponse<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+
+}
@@ -0,0 +1,27 @@
+package br.com.servicos_auto.models;
+
+import lombok.Data;
+
+// Linha da importação em lote de prestadores (CSV com cabeçalho ou um objeto JSON por linha)
+@Data
+public class PrestadorImportRow {
+
+    private String nome;
+    private String email;
+    private String cpf;
+    private String cnpj;
+    private String senha;
+
+    public PrestadorServico toEntity() {
+        PrestadorServico prestadorServico = new PrestadorServico();
+        prestadorServico.setNome(nome);
+        prestadorServico.setEmail(email);
+        // Colunas vazias do CSV valem como ausentes
+        prestadorServico.setCpf(cpf == null || cpf.isBlank() ? null : cpf);
+        prestadorServico.setCnpj(cnpj == null || cnpj.isBlank() ? null : cnpj);
+        prestadorServico.setSenha(senha);
+        prestadorServico.addRole(Role.PRESTADOR_SERVICO);
+        return prestadorServico;
+    }
+
+}
@@ -7,6 +7,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Filter;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -19,10 +21,14 @@ import lombok.Data;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_prestador_servico_created_at_id", columnList = "created_at, id"))
+@Filter(name = SoftDelete.FILTER, condition = SoftDelete.CONDITION)
 public class PrestadorServico {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence com otimizador pooled: o Hibernate reserva blocos de 50 IDs e consegue agrupar os INSERTs
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prestador_servico_seq")
+    @SequenceGenerator(name = "prestador_servico_seq", sequenceName = "prestador_servico_seq", allocationSize = 50)
     @Schema(description = "ID do prestador de serviço", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
@@ -54,16 +60,20 @@ public class PrestadorServico {
 
     @ElementCollection(targetClass = Role.class, fetch = FetchType.EAGER)
     @CollectionTable(name = "prestador_roles", joinColumns = @JoinColumn(name = "prestador_id"))
+    @BatchSize(size = 100)
     @Enumerated(EnumType.STRING)
     @Column(name = "role")
     @Schema(hidden = true)
     private Set<Role> roles = new HashSet<>();
 
     @OneToMany(mappedBy = "prestadorServico", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @Schema(hidden = true)
     private List<Image> images = new ArrayList<>();
 
     @OneToMany(mappedBy = "prestadorServico", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
+    @Filter(name = SoftDelete.FILTER, condition = SoftDelete.CONDITION)
     @Schema(hidden = true)
     private List<Anuncio> anuncios = new ArrayList<>();
 
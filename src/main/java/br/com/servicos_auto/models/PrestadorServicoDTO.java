@@ -1,6 +1,7 @@
 package br.com.servicos_auto.models;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +25,23 @@ public class PrestadorServicoDTO {
     
     private List<AnuncioDTO> anuncio;
 
+    // Usado pelas projeções JPQL; roles, imagens e anúncios são preenchidos depois, em lote
+    public PrestadorServicoDTO(Long id, String nome, String email, String cpf, String cnpj, LocalDateTime createdAt,
+            LocalDateTime updatedAt, LocalDateTime deletedAt) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.cpf = cpf;
+        this.cnpj = cnpj;
+        this.roles = new ArrayList<>();
+        this.deleted = deletedAt != null;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.deletedAt = deletedAt;
+        this.images = new ArrayList<>();
+        this.anuncio = new ArrayList<>();
+    }
+
     public PrestadorServicoDTO(PrestadorServico prestadorServico) {
         this.id = prestadorServico.getId();
         this.nome = prestadorServico.getNome();
@@ -0,0 +1,33 @@
+package br.com.servicos_auto.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Até onde uma tarefa em segundo plano já percorreu a tabela, para retomar após reinícios
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "reaper_checkpoint")
+public class ReaperCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ReaperCheckpoint(String name) {
+        this.name = name;
+        this.lastId = 0L;
+    }
+
+}
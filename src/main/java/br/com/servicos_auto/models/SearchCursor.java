@@ -0,0 +1,44 @@
+package br.com.servicos_auto.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.Data;
+
+// Cursor opaco da busca textual, no mesmo formato de PageCursor: codifica a posição
+// (ts_rank, id) do último anúncio devolvido, para que a próxima página continue a partir
+// dele sem OFFSET
+@Data
+public class SearchCursor {
+
+    private final float rank;
+    private final Long id;
+
+    public String encode() {
+        // Float.toString devolve o menor decimal que identifica o float: o valor volta idêntico
+        String raw = rank + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Retorna null quando nenhum cursor foi informado (primeira página)
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = raw.indexOf('|');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor sem separador");
+            }
+            return new SearchCursor(Float.parseFloat(raw.substring(0, separador)),
+                    Long.valueOf(raw.substring(separador + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor invalido");
+        }
+    }
+
+}
@@ -0,0 +1,15 @@
+package br.com.servicos_auto.models;
+
+// Filtro do Hibernate que esconde anúncios, prestadores e usuários excluídos (deleted_at
+// preenchido). A condição literal "deleted_at is null" permite ao Postgres usar os índices
+// parciais das linhas vivas. É ligado por transação em services.SoftDeleteFilter
+public final class SoftDelete {
+
+    public static final String FILTER = "semExcluidos";
+
+    public static final String CONDITION = "deleted_at is null";
+
+    private SoftDelete() {
+    }
+
+}
@@ -0,0 +1,29 @@
+package br.com.servicos_auto.models;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Ordenações aceitas nas listagens paginadas. Ambas usam o índice (created_at, id),
+// percorrido para frente ou para trás
+public enum SortOrder {
+    RECENTES("recentes"),
+    ANTIGOS("antigos");
+
+    private final String param;
+
+    SortOrder(String param) {
+        this.param = param;
+    }
+
+    public static SortOrder fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return RECENTES;
+        }
+        for (SortOrder order : values()) {
+            if (order.param.equalsIgnoreCase(param)) {
+                return order;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ordenacao invalida: " + param);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.servicos_auto.models;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Estado de um upload assíncrono, consultado em GET /api/uploads/{jobId}
+@Data
+@AllArgsConstructor
+public class UploadJobDTO {
+
+    private String jobId;
+    private UploadJobStatus status;
+    private ImageOwner owner;
+    private Long ownerId;
+    private ImageDTO image;
+    private String erro;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Quem enviou o arquivo (email do token): só ele ou um ADMIN consulta o job
+    @JsonIgnore
+    private String submittedBy;
+
+    public UploadJobDTO withStatus(UploadJobStatus status, ImageDTO image, String erro) {
+        return new UploadJobDTO(jobId, status, owner, ownerId, image, erro, createdAt, LocalDateTime.now(),
+                submittedBy);
+    }
+
+}
@@ -0,0 +1,8 @@
+package br.com.servicos_auto.models;
+
+public enum UploadJobStatus {
+    PENDENTE,
+    PROCESSANDO,
+    CONCLUIDO,
+    FALHOU
+}
@@ -7,6 +7,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Filter;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
@@ -20,10 +22,14 @@ import lombok.Data;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_usuario_created_at_id", columnList = "created_at, id"))
+@Filter(name = SoftDelete.FILTER, condition = SoftDelete.CONDITION)
 public class Usuario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence com otimizador pooled: o Hibernate reserva blocos de 50 IDs e consegue agrupar os INSERTs
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq")
+    @SequenceGenerator(name = "usuario_seq", sequenceName = "usuario_seq", allocationSize = 50)
     @Schema(description = "ID do usuário", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
@@ -50,12 +56,14 @@ public class Usuario {
     private String senha;
 
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @JsonManagedReference
     @Schema(hidden = true)
     private List<Image> images = new ArrayList<>();
 
     @ElementCollection(targetClass = Role.class, fetch = FetchType.EAGER)
     @CollectionTable(name = "usuario_roles", joinColumns = @JoinColumn(name = "usuario_id"))
+    @BatchSize(size = 100)
     @Enumerated(EnumType.STRING)
     @Column(name = "role")
     @Schema(hidden = true)
@@ -1,6 +1,7 @@
 package br.com.servicos_auto.models;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +20,20 @@ public class UsuarioDTO {
     private LocalDateTime deletedAt;
     private List<ImageDTO> images;
 
+    // Usado pelas projeções JPQL; roles e imagens são preenchidas depois, em lote
+    public UsuarioDTO(Long id, String nome, String email, LocalDateTime createdAt, LocalDateTime updatedAt,
+            LocalDateTime deletedAt) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.roles = new ArrayList<>();
+        this.deleted = deletedAt != null;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.deletedAt = deletedAt;
+        this.images = new ArrayList<>();
+    }
+
     public UsuarioDTO(Usuario usuario) {
         this.id = usuario.getId();
         this.nome = usuario.getNome();
@@ -1,11 +1,104 @@
 package br.com.servicos_auto.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import br.com.servicos_auto.models.Anuncio;
+import br.com.servicos_auto.models.AnuncioDTO;
+import jakarta.persistence.QueryHint;
 
 public interface AnuncioRepository extends JpaRepository<Anuncio, Long> {
     List<Anuncio> findByPrestadorServicoId(Long prestadorServicoId);
+
+    // Projeções de leitura: selecionam só as colunas do DTO, sem entidades gerenciadas
+    String DTO_SELECT = "select new br.com.servicos_auto.models.AnuncioDTO(a.id, a.titulo, a.descricao, "
+            + "a.prestadorServico.id, a.createdAt, a.updatedAt, a.deletedAt) from Anuncio a ";
+
+    @Query(DTO_SELECT + "where a.id = :id")
+    Optional<AnuncioDTO> findDtoById(@Param("id") Long id);
+
+    @Query(DTO_SELECT + "where a.id in :ids")
+    List<AnuncioDTO> findDtosByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(DTO_SELECT + "where a.prestadorServico.id in :prestadorIds order by a.id")
+    List<AnuncioDTO> findDtosByPrestadorIds(@Param("prestadorIds") Collection<Long> prestadorIds);
+
+    // Exportação do catálogo: cursor somente-avanço pela chave primária, buscado do banco em
+    // blocos de EXPORT_FETCH_SIZE linhas. Precisa ser consumido dentro de uma transação
+    int EXPORT_FETCH_SIZE = 500;
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(DTO_SELECT + "where a.id > :afterId and a.deletedAt is null order by a.id")
+    Stream<AnuncioDTO> streamAfter(@Param("afterId") long afterId);
+
+    // Busca textual: título pesa mais que a descrição; a configuração portuguese_unaccent
+    // aplica stemming em português e ignora acentos ("óleo" encontra "oleo")
+    String SEARCH_VECTOR = "setweight(to_tsvector('portuguese_unaccent', coalesce(titulo, '')), 'A') || "
+            + "setweight(to_tsvector('portuguese_unaccent', coalesce(descricao, '')), 'B')";
+
+    // Recalcula o tsvector só da linha gravada, mantendo o índice GIN atualizado de forma incremental
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update anuncio set search_vector = " + SEARCH_VECTOR + " where id = :id", nativeQuery = true)
+    void updateSearchVector(@Param("id") Long id);
+
+    // Mesmo cálculo para um bloco de anúncios (importação em lote)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update anuncio set search_vector = " + SEARCH_VECTOR + " where id in (:ids)", nativeQuery = true)
+    void updateSearchVectors(@Param("ids") Collection<Long> ids);
+
+    // Resultado da busca: ID e relevância, usados também no cursor da próxima página
+    interface SearchHit {
+        Long getId();
+
+        Float getRank();
+    }
+
+    // Paginação por keyset sobre (ts_rank, id): cada página só ordena as linhas abaixo do
+    // cursor e guarda as limit primeiras, em vez de ordenar e descartar OFFSET linhas
+    String SEARCH_FROM = "from anuncio a, websearch_to_tsquery('portuguese_unaccent', :q) query "
+            + "where a.search_vector @@ query and a.deleted_at is null ";
+
+    String SEARCH_ORDER = "order by rank desc, a.id desc limit :limit";
+
+    @Query(value = "select a.id as id, ts_rank(a.search_vector, query) as rank " + SEARCH_FROM + SEARCH_ORDER,
+            nativeQuery = true)
+    List<SearchHit> searchFirstPage(@Param("q") String q, @Param("limit") int limit);
+
+    @Query(value = "select a.id as id, ts_rank(a.search_vector, query) as rank " + SEARCH_FROM
+            + "and (ts_rank(a.search_vector, query), a.id) < (cast(:rank as real), :id) " + SEARCH_ORDER,
+            nativeQuery = true)
+    List<SearchHit> searchPageAfter(@Param("q") String q, @Param("rank") float rank, @Param("id") Long id,
+            @Param("limit") int limit);
+
+    // Paginação por keyset sobre o índice (created_at, id)
+    @Query(DTO_SELECT + "order by a.createdAt desc, a.id desc")
+    List<AnuncioDTO> findFirstPageDesc(Limit limit);
+
+    @Query(DTO_SELECT + "where a.createdAt <= :createdAt "
+            + "and (a.createdAt < :createdAt or a.id < :id) order by a.createdAt desc, a.id desc")
+    List<AnuncioDTO> findPageDescAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
+
+    @Query(DTO_SELECT + "order by a.createdAt asc, a.id asc")
+    List<AnuncioDTO> findFirstPageAsc(Limit limit);
+
+    @Query(DTO_SELECT + "where a.createdAt >= :createdAt "
+            + "and (a.createdAt > :createdAt or a.id > :id) order by a.createdAt asc, a.id asc")
+    List<AnuncioDTO> findPageAscAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
 }
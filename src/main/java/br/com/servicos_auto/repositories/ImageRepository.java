@@ -1,9 +1,71 @@
 package br.com.servicos_auto.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.servicos_auto.models.Image;
+import br.com.servicos_auto.models.OwnedImageDTO;
 
 public interface ImageRepository extends JpaRepository<Image, Long> {
 
+    // Imagem já armazenada com o mesmo conteúdo (deduplicação de uploads). Ignora as linhas cujo
+    // dono foi excluído: estão na fila do ImageReaper, que pode apagar o objeto a qualquer momento
+    @Query("select i from Image i left join i.usuario u left join i.prestadorServico p "
+            + "left join i.anuncio a left join a.prestadorServico ap "
+            + "where i.contentHash = :contentHash and i.storageBackend = :storageBackend "
+            + "and u.deletedAt is null and p.deletedAt is null and a.deletedAt is null and ap.deletedAt is null "
+            + "order by i.id")
+    List<Image> findReusable(@Param("contentHash") String contentHash, @Param("storageBackend") String storageBackend,
+            Limit limit);
+
+    // Colunas de ImageDTO, na ordem do construtor de OwnedImageDTO
+    String DTO_COLUMNS = "i.id, i.url, i.imgurId, i.imgurDeletehash, i.type, i.thumbnailUrl, i.mediumUrl, "
+            + "i.storageBackend, i.uploadedAt";
+
+    // Projeções de leitura: imagens de vários donos em um único SELECT
+    @Query("select new br.com.servicos_auto.models.OwnedImageDTO(i.anuncio.id, " + DTO_COLUMNS
+            + ") from Image i where i.anuncio.id in :ids order by i.id")
+    List<OwnedImageDTO> findDtosByAnuncioIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new br.com.servicos_auto.models.OwnedImageDTO(i.prestadorServico.id, " + DTO_COLUMNS
+            + ") from Image i where i.prestadorServico.id in :ids order by i.id")
+    List<OwnedImageDTO> findDtosByPrestadorIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new br.com.servicos_auto.models.OwnedImageDTO(i.usuario.id, " + DTO_COLUMNS
+            + ") from Image i where i.usuario.id in :ids order by i.id")
+    List<OwnedImageDTO> findDtosByUsuarioIds(@Param("ids") Collection<Long> ids);
+
+    // Imagens órfãs: o dono (ou o prestador do anúncio dono) foi excluído antes de :cutoff
+    String ORPHANED = "from Image i left join i.usuario u left join i.prestadorServico p "
+            + "left join i.anuncio a left join a.prestadorServico ap "
+            + "where (u.deletedAt < :cutoff or p.deletedAt < :cutoff or a.deletedAt < :cutoff or ap.deletedAt < :cutoff)";
+
+    @Query("select i " + ORPHANED + " and i.id > :afterId order by i.id")
+    List<Image> findOrphanedAfter(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select count(i) " + ORPHANED)
+    long countOrphaned(@Param("cutoff") LocalDateTime cutoff);
+
+    // Outras linhas, além de :ids, que apontam para o mesmo objeto armazenado (deduplicação);
+    // imagens antigas do Imgur não têm storageKey, só imgurId
+    @Query("select count(i) from Image i where coalesce(i.storageKey, i.imgurId) = :key and i.id not in :ids")
+    long countOtherReferences(@Param("key") String key, @Param("ids") Collection<Long> ids);
+
+    // Grava as variantes geradas em segundo plano
+    @Transactional
+    @Modifying
+    @Query("update Image i set i.thumbnailUrl = :thumbnailUrl, i.thumbnailKey = :thumbnailKey, "
+            + "i.mediumUrl = :mediumUrl, i.mediumKey = :mediumKey where i.id = :id")
+    int updateVariants(@Param("id") Long id, @Param("thumbnailUrl") String thumbnailUrl,
+            @Param("thumbnailKey") String thumbnailKey, @Param("mediumUrl") String mediumUrl,
+            @Param("mediumKey") String mediumKey);
+
 }
@@ -1,10 +1,18 @@
 package br.com.servicos_auto.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import br.com.servicos_auto.models.OwnedRoleDTO;
 import br.com.servicos_auto.models.PrestadorServico;
+import br.com.servicos_auto.models.PrestadorServicoDTO;
 
 public interface PrestadorServicoRepository extends JpaRepository<PrestadorServico, Long> {
     Optional<PrestadorServico> findByEmail(String email);
@@ -12,4 +20,53 @@ public interface PrestadorServicoRepository extends JpaRepository<PrestadorServi
     Optional<PrestadorServico> findByCpf(String cpf);
 
     Optional<PrestadorServico> findByCnpj(String cnpj);
+
+    // Checagens de unicidade da importação em lote: um SELECT por bloco de linhas
+    @Query("select p.email from PrestadorServico p where p.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select p.cpf from PrestadorServico p where p.cpf in :cpfs")
+    List<String> findExistingCpfs(@Param("cpfs") Collection<String> cpfs);
+
+    @Query("select p.cnpj from PrestadorServico p where p.cnpj in :cnpjs")
+    List<String> findExistingCnpjs(@Param("cnpjs") Collection<String> cnpjs);
+
+    // Prestadores não excluídos referenciados pelas linhas de anúncios importadas
+    interface PrestadorRef {
+        Long getId();
+
+        String getEmail();
+    }
+
+    List<PrestadorRef> findByIdInAndDeletedAtIsNull(Collection<Long> ids);
+
+    List<PrestadorRef> findByEmailInAndDeletedAtIsNull(Collection<String> emails);
+
+    // Projeções de leitura: selecionam só as colunas do DTO, sem entidades gerenciadas
+    String DTO_SELECT = "select new br.com.servicos_auto.models.PrestadorServicoDTO(p.id, p.nome, p.email, "
+            + "p.cpf, p.cnpj, p.createdAt, p.updatedAt, p.deletedAt) from PrestadorServico p ";
+
+    @Query(DTO_SELECT + "where p.id = :id")
+    Optional<PrestadorServicoDTO> findDtoById(@Param("id") Long id);
+
+    @Query("select new br.com.servicos_auto.models.OwnedRoleDTO(p.id, r) from PrestadorServico p join p.roles r "
+            + "where p.id in :ids")
+    List<OwnedRoleDTO> findRolesByIds(@Param("ids") Collection<Long> ids);
+
+    // Paginação por keyset sobre o índice (created_at, id)
+    @Query(DTO_SELECT + "order by p.createdAt desc, p.id desc")
+    List<PrestadorServicoDTO> findFirstPageDesc(Limit limit);
+
+    @Query(DTO_SELECT + "where p.createdAt <= :createdAt "
+            + "and (p.createdAt < :createdAt or p.id < :id) order by p.createdAt desc, p.id desc")
+    List<PrestadorServicoDTO> findPageDescAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
+
+    @Query(DTO_SELECT + "order by p.createdAt asc, p.id asc")
+    List<PrestadorServicoDTO> findFirstPageAsc(Limit limit);
+
+    @Query(DTO_SELECT + "where p.createdAt >= :createdAt "
+            + "and (p.createdAt > :createdAt or p.id > :id) order by p.createdAt asc, p.id asc")
+    List<PrestadorServicoDTO> findPageAscAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
 }
@@ -0,0 +1,9 @@
+package br.com.servicos_auto.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import br.com.servicos_auto.models.ReaperCheckpoint;
+
+public interface ReaperCheckpointRepository extends JpaRepository<ReaperCheckpoint, String> {
+
+}
@@ -1,11 +1,48 @@
 package br.com.servicos_auto.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.servicos_auto.models.OwnedRoleDTO;
 import br.com.servicos_auto.models.Usuario;
+import br.com.servicos_auto.models.UsuarioDTO;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
     Optional<Usuario> findByCpf(String cpf);
+
+    // Projeções de leitura: selecionam só as colunas do DTO, sem entidades gerenciadas
+    String DTO_SELECT = "select new br.com.servicos_auto.models.UsuarioDTO(u.id, u.nome, u.email, "
+            + "u.createdAt, u.updatedAt, u.deletedAt) from Usuario u ";
+
+    @Query(DTO_SELECT + "where u.id = :id")
+    Optional<UsuarioDTO> findDtoById(@Param("id") Long id);
+
+    @Query("select new br.com.servicos_auto.models.OwnedRoleDTO(u.id, r) from Usuario u join u.roles r "
+            + "where u.id in :ids")
+    List<OwnedRoleDTO> findRolesByIds(@Param("ids") Collection<Long> ids);
+
+    // Paginação por keyset sobre o índice (created_at, id)
+    @Query(DTO_SELECT + "order by u.createdAt desc, u.id desc")
+    List<UsuarioDTO> findFirstPageDesc(Limit limit);
+
+    @Query(DTO_SELECT + "where u.createdAt <= :createdAt "
+            + "and (u.createdAt < :createdAt or u.id < :id) order by u.createdAt desc, u.id desc")
+    List<UsuarioDTO> findPageDescAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
+
+    @Query(DTO_SELECT + "order by u.createdAt asc, u.id asc")
+    List<UsuarioDTO> findFirstPageAsc(Limit limit);
+
+    @Query(DTO_SELECT + "where u.createdAt >= :createdAt "
+            + "and (u.createdAt > :createdAt or u.id > :id) order by u.createdAt asc, u.id asc")
+    List<UsuarioDTO> findPageAscAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
 }
@@ -1,22 +1,44 @@
 package br.com.servicos_auto.services;
 
+import br.com.servicos_auto.configs.CacheConfig;
 import br.com.servicos_auto.models.Anuncio;
 import br.com.servicos_auto.models.AnuncioDTO;
+import br.com.servicos_auto.models.ImageDTO;
+import br.com.servicos_auto.models.OwnedImageDTO;
+import br.com.servicos_auto.models.PageCursor;
+import br.com.servicos_auto.models.PageResponse;
 import br.com.servicos_auto.models.PrestadorServico;
+import br.com.servicos_auto.models.SearchCursor;
+import br.com.servicos_auto.models.SortOrder;
 import br.com.servicos_auto.repositories.AnuncioRepository;
+import br.com.servicos_auto.repositories.ImageRepository;
 import br.com.servicos_auto.repositories.PrestadorServicoRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class AnuncioService {
@@ -29,21 +51,138 @@ public class AnuncioService {
     @Autowired
     private PrestadorServicoRepository prestadorServicoRepository;
 
-    public List<AnuncioDTO> findAll() {
-        logger.info("Buscando anuncios");
-        return anuncioRepository.findAll().stream()
-                .map(AnuncioDTO::new)
-                .collect(Collectors.toList());
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private SoftDeleteFilter softDeleteFilter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public PageResponse<AnuncioDTO> findAll(int limit, String cursor, String sort, boolean includeDeleted) {
+        logger.info("Buscando anuncios (limit: {}, sort: {})", limit, sort);
+        softDeleteFilter.apply(includeDeleted);
+        SortOrder order = SortOrder.fromParam(sort);
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.normalizeLimit(limit);
+        // Busca uma linha a mais para saber se existe próxima página
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<AnuncioDTO> anuncios = switch (order) {
+            case RECENTES -> after == null
+                    ? anuncioRepository.findFirstPageDesc(fetch)
+                    : anuncioRepository.findPageDescAfter(after.getCreatedAt(), after.getId(), fetch);
+            case ANTIGOS -> after == null
+                    ? anuncioRepository.findFirstPageAsc(fetch)
+                    : anuncioRepository.findPageAscAfter(after.getCreatedAt(), after.getId(), fetch);
+        };
+
+        PageResponse<AnuncioDTO> page = PageResponse.of(anuncios, pageSize, AnuncioDTO::getCreatedAt,
+                AnuncioDTO::getId, Function.identity());
+        fillImages(page.getContent());
+        return page;
     }
 
-    public AnuncioDTO findById(Long id) {
+    // Só o detalhe de anúncios vivos vai para o cache
+    @Cacheable(cacheNames = CacheConfig.ANUNCIOS, key = "#id", condition = "!#includeDeleted")
+    @Transactional(readOnly = true)
+    public AnuncioDTO findById(Long id, boolean includeDeleted) {
         logger.info("Buscando anuncio com ID: {}", id);
-        Anuncio anuncio = anuncioRepository.findById(id)
+        softDeleteFilter.apply(includeDeleted);
+        AnuncioDTO anuncio = anuncioRepository.findDtoById(id)
                 .orElseThrow(() -> {
                     logger.error("Anuncio com o ID {} nao encontrado", id);
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Anuncio nao encontrado");
                 });
-        return new AnuncioDTO(anuncio);
+        fillImages(List.of(anuncio));
+        return anuncio;
+    }
+
+    // Busca textual paginada por keyset: o cursor (SearchCursor) guarda a relevância e o ID
+    // do último anúncio devolvido
+    @Transactional(readOnly = true)
+    public PageResponse<AnuncioDTO> search(String q, int limit, String cursor) {
+        logger.info("Buscando anuncios pelo texto: {}", q);
+        if (q == null || q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o texto da busca");
+        }
+        int pageSize = PageCursor.normalizeLimit(limit);
+        SearchCursor after = SearchCursor.decode(cursor);
+        softDeleteFilter.apply(false);
+
+        // Busca uma linha a mais para saber se existe próxima página
+        List<AnuncioRepository.SearchHit> hits = after == null
+                ? anuncioRepository.searchFirstPage(q, pageSize + 1)
+                : anuncioRepository.searchPageAfter(q, after.getRank(), after.getId(), pageSize + 1);
+        boolean hasNext = hits.size() > pageSize;
+        List<AnuncioRepository.SearchHit> page = hasNext ? hits.subList(0, pageSize) : hits;
+        List<Long> pageIds = page.stream().map(AnuncioRepository.SearchHit::getId).toList();
+
+        List<AnuncioDTO> anuncios = pageIds.isEmpty() ? List.of() : anuncioRepository.findDtosByIds(pageIds);
+        // Mantém a ordem por relevância devolvida pelo índice
+        List<AnuncioDTO> ranked = anuncios.stream()
+                .sorted(Comparator.comparingInt(anuncio -> pageIds.indexOf(anuncio.getId())))
+                .toList();
+        fillImages(ranked);
+
+        String nextCursor = null;
+        if (hasNext) {
+            AnuncioRepository.SearchHit last = page.get(page.size() - 1);
+            nextCursor = new SearchCursor(last.getRank(), last.getId()).encode();
+        }
+        return new PageResponse<>(ranked, nextCursor);
+    }
+
+    // Exporta os anúncios vivos com ID maior que afterId, em ordem de ID, como NDJSON (um
+    // anúncio por linha). As linhas vêm de um cursor do banco e são escritas em blocos, com
+    // as imagens do bloco buscadas em um SELECT: a memória usada não depende do tamanho do
+    // catálogo. Para retomar uma exportação interrompida, use o ID da última linha recebida
+    @Transactional(readOnly = true)
+    public long export(long afterId, OutputStream out) throws IOException {
+        logger.info("Exportando anuncios a partir do ID {}", afterId);
+        ObjectWriter writer = objectMapper.writerFor(AnuncioDTO.class);
+        List<AnuncioDTO> chunk = new ArrayList<>(AnuncioRepository.EXPORT_FETCH_SIZE);
+        long exported = 0;
+
+        try (Stream<AnuncioDTO> anuncios = anuncioRepository.streamAfter(afterId)) {
+            Iterator<AnuncioDTO> iterator = anuncios.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == AnuncioRepository.EXPORT_FETCH_SIZE || !iterator.hasNext()) {
+                    fillImages(chunk);
+                    for (AnuncioDTO anuncio : chunk) {
+                        out.write(writer.writeValueAsBytes(anuncio));
+                        out.write('\n');
+                    }
+                    // Envia o bloco ao cliente antes de buscar o próximo
+                    out.flush();
+                    exported += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+        logger.info("Exportacao concluida: {} anuncios", exported);
+        return exported;
+    }
+
+    // O detalhe do prestador lista seus anúncios, então qualquer mudança em um anúncio o invalida
+    private void evictPrestador(Long prestadorId) {
+        cacheManager.getCache(CacheConfig.PRESTADORES).evict(prestadorId);
+    }
+
+    // Busca as imagens de todos os anúncios em um único SELECT
+    void fillImages(List<AnuncioDTO> anuncios) {
+        if (anuncios.isEmpty()) {
+            return;
+        }
+        Map<Long, List<ImageDTO>> images = OwnedImageDTO.groupByOwner(
+                imageRepository.findDtosByAnuncioIds(anuncios.stream().map(AnuncioDTO::getId).toList()));
+        anuncios.forEach(anuncio -> anuncio.setImages(images.getOrDefault(anuncio.getId(), List.of())));
     }
 
     @Transactional
@@ -60,12 +199,15 @@ public class AnuncioService {
 
         anuncio.setPrestadorServico(prestadorServico);
         Anuncio savedAnuncio = anuncioRepository.save(anuncio);
+        anuncioRepository.updateSearchVector(savedAnuncio.getId());
+        evictPrestador(prestadorId);
         logger.info("Anuncio criado com sucesso: {}", savedAnuncio.getId());
 
         return new AnuncioDTO(savedAnuncio);
 
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ANUNCIOS, key = "#id")
     @Transactional
     public AnuncioDTO update(Long id, Anuncio anuncioDetails) {
 
@@ -85,12 +227,15 @@ public class AnuncioService {
             existingAnuncio.setDescricao(anuncioDetails.getDescricao());
         }
         Anuncio updatedAnuncio = anuncioRepository.save(existingAnuncio);
+        anuncioRepository.updateSearchVector(updatedAnuncio.getId());
+        evictPrestador(updatedAnuncio.getPrestadorServico().getId());
         logger.info("Anuncio atualizado com sucesso. ID: {}", updatedAnuncio.getId());
 
         return new AnuncioDTO(updatedAnuncio);
 
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ANUNCIOS, key = "#id")
     public void delete(Long id) {
         logger.info("Deletando anuncio com ID: {}", id);
 
@@ -103,6 +248,7 @@ public class AnuncioService {
         }
         anuncio.delete();
         anuncioRepository.save(anuncio);
+        evictPrestador(anuncio.getPrestadorServico().getId());
 
     }
 
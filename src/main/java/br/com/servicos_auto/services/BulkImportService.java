@@ -0,0 +1,393 @@
+package br.com.servicos_auto.services;
+
+import br.com.servicos_auto.configs.CacheConfig;
+import br.com.servicos_auto.configs.WorkerThreads;
+import br.com.servicos_auto.models.Anuncio;
+import br.com.servicos_auto.models.AnuncioImportRow;
+import br.com.servicos_auto.models.ImportResultDTO;
+import br.com.servicos_auto.models.PrestadorImportRow;
+import br.com.servicos_auto.models.PrestadorServico;
+import br.com.servicos_auto.repositories.AnuncioRepository;
+import br.com.servicos_auto.repositories.PrestadorServicoRepository;
+import br.com.servicos_auto.repositories.PrestadorServicoRepository.PrestadorRef;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Importação em lote de prestadores e anúncios (onboarding de redes/franquias). O corpo é
+// lido em streaming, em CSV com cabeçalho ou NDJSON, e processado em blocos de chunk-size
+// linhas: validação, unicidade com um SELECT por coluna para o bloco inteiro e gravação
+// com INSERTs agrupados pelo Hibernate, um bloco por transação. Linhas inválidas são
+// reportadas e não interrompem a importação
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    public static final String CSV = "text/csv";
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final PrestadorServicoRepository prestadorServicoRepository;
+
+    private final AnuncioRepository anuncioRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Validator validator;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectReader ndjsonReader;
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int chunkSize;
+
+    private final int maxErrors;
+
+    // O BCrypt domina o custo por linha: os hashes de um bloco são calculados em paralelo
+    private final ExecutorService hashExecutor;
+
+    public BulkImportService(PrestadorServicoRepository prestadorServicoRepository,
+            AnuncioRepository anuncioRepository, PasswordEncoder passwordEncoder, Validator validator,
+            CacheManager cacheManager, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            WorkerThreads workerThreads,
+            @Value("${imports.chunk-size:500}") int chunkSize,
+            @Value("${imports.max-errors:1000}") int maxErrors,
+            @Value("${imports.hash-concurrency:4}") int hashConcurrency) {
+        this.prestadorServicoRepository = prestadorServicoRepository;
+        this.anuncioRepository = anuncioRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ndjsonReader = objectMapper.reader().without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.hashExecutor = Executors.newFixedThreadPool(hashConcurrency, workerThreads.factory("import-hash-"));
+    }
+
+    public ImportResultDTO importPrestadores(InputStream body, String contentType) {
+        // Valores já aceitos em blocos anteriores: pegam duplicatas dentro do próprio arquivo
+        Set<String> emails = new HashSet<>();
+        Set<String> cpfs = new HashSet<>();
+        Set<String> cnpjs = new HashSet<>();
+        ImportResultDTO result = read(body, contentType, PrestadorImportRow.class,
+                (chunk, partial) -> importPrestadores(chunk, emails, cpfs, cnpjs, partial));
+        logger.info("Importacao de prestadores: {} linhas, {} importados, {} falhas", result.getTotal(),
+                result.getImportados(), result.getFalhas());
+        return result;
+    }
+
+    public ImportResultDTO importAnuncios(InputStream body, String contentType) {
+        ImportResultDTO result = read(body, contentType, AnuncioImportRow.class, this::importAnuncios);
+        logger.info("Importacao de anuncios: {} linhas, {} importados, {} falhas", result.getTotal(),
+                result.getImportados(), result.getFalhas());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    // Linha lida do arquivo; numero conta os registros de dados a partir de 1 (sem o cabeçalho do CSV)
+    private record Linha<R>(long numero, R row) {
+    }
+
+    // Linha que passou na validação, com a entidade a gravar
+    private record Valido<E>(long numero, E entidade, Long prestadorId) {
+    }
+
+    private <R> ImportResultDTO read(InputStream body, String contentType, Class<R> type,
+            BiConsumer<List<Linha<R>>, ImportResultDTO> chunkHandler) {
+        ImportResultDTO result = new ImportResultDTO();
+        List<Linha<R>> chunk = new ArrayList<>(chunkSize);
+        long numero = 0;
+
+        try (MappingIterator<R> rows = reader(contentType).forType(type).readValues(body)) {
+            while (rows.hasNextValue()) {
+                numero++;
+                result.setTotal(result.getTotal() + 1);
+                try {
+                    chunk.add(new Linha<>(numero, rows.nextValue()));
+                } catch (JsonMappingException e) {
+                    // Valor com tipo errado: o iterador se reposiciona na próxima linha
+                    fail(result, numero, "Linha invalida: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (chunk.size() >= chunkSize) {
+                    chunkHandler.accept(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Conteúdo malformado: mantém o que já foi lido e descarta o restante do arquivo
+            logger.error("Importacao interrompida na linha {}: {}", numero, e.getMessage());
+            fail(result, numero, "Conteudo invalido, importacao interrompida: " + e.getMessage());
+        }
+
+        if (!chunk.isEmpty()) {
+            chunkHandler.accept(chunk, result);
+        }
+        return result;
+    }
+
+    private ObjectReader reader(String contentType) {
+        MediaType mediaType = contentType == null ? null : MediaType.parseMediaType(contentType);
+        if (mediaType != null && MediaType.parseMediaType(CSV).includes(mediaType)) {
+            return csvMapper.reader()
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .withFeatures(CsvParser.Feature.EMPTY_STRING_AS_NULL, CsvParser.Feature.TRIM_SPACES)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        }
+        if (mediaType != null && MediaType.parseMediaType(NDJSON).includes(mediaType)) {
+            return ndjsonReader;
+        }
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Envie " + CSV + " ou " + NDJSON);
+    }
+
+    private void importPrestadores(List<Linha<PrestadorImportRow>> chunk, Set<String> emails, Set<String> cpfs,
+            Set<String> cnpjs, ImportResultDTO result) {
+        List<Valido<PrestadorServico>> candidatos = new ArrayList<>(chunk.size());
+        for (Linha<PrestadorImportRow> linha : chunk) {
+            PrestadorServico prestadorServico = linha.row().toEntity();
+            String erro = validate(prestadorServico);
+            if (erro != null) {
+                fail(result, linha.numero(), erro);
+            } else {
+                candidatos.add(new Valido<>(linha.numero(), prestadorServico, null));
+            }
+        }
+
+        // Unicidade: um SELECT por coluna para o bloco inteiro
+        Set<String> emailsExistentes = existing(candidatos, PrestadorServico::getEmail,
+                prestadorServicoRepository::findExistingEmails);
+        Set<String> cpfsExistentes = existing(candidatos, PrestadorServico::getCpf,
+                prestadorServicoRepository::findExistingCpfs);
+        Set<String> cnpjsExistentes = existing(candidatos, PrestadorServico::getCnpj,
+                prestadorServicoRepository::findExistingCnpjs);
+
+        // Valores aceitos neste bloco: só entram nos conjuntos da importação se o bloco for gravado
+        Set<String> emailsDoBloco = new HashSet<>();
+        Set<String> cpfsDoBloco = new HashSet<>();
+        Set<String> cnpjsDoBloco = new HashSet<>();
+        List<Valido<PrestadorServico>> validos = new ArrayList<>(candidatos.size());
+        for (Valido<PrestadorServico> candidato : candidatos) {
+            PrestadorServico prestadorServico = candidato.entidade();
+            String email = prestadorServico.getEmail();
+            String cpf = prestadorServico.getCpf();
+            String cnpj = prestadorServico.getCnpj();
+            if (emailsExistentes.contains(email) || emails.contains(email) || emailsDoBloco.contains(email)) {
+                fail(result, candidato.numero(), "Email já cadastrado");
+            } else if (cpf != null
+                    && (cpfsExistentes.contains(cpf) || cpfs.contains(cpf) || cpfsDoBloco.contains(cpf))) {
+                fail(result, candidato.numero(), "CPF já cadastrado");
+            } else if (cnpj != null
+                    && (cnpjsExistentes.contains(cnpj) || cnpjs.contains(cnpj) || cnpjsDoBloco.contains(cnpj))) {
+                fail(result, candidato.numero(), "CNPJ já cadastrado");
+            } else {
+                emailsDoBloco.add(email);
+                if (cpf != null) {
+                    cpfsDoBloco.add(cpf);
+                }
+                if (cnpj != null) {
+                    cnpjsDoBloco.add(cnpj);
+                }
+                validos.add(candidato);
+            }
+        }
+
+        List<CompletableFuture<Void>> hashes = new ArrayList<>(validos.size());
+        for (Valido<PrestadorServico> valido : validos) {
+            PrestadorServico prestador = valido.entidade();
+            try {
+                hashes.add(CompletableFuture.runAsync(
+                        () -> prestador.setSenha(passwordEncoder.encode(prestador.getSenha())), hashExecutor));
+            } catch (RejectedExecutionException e) {
+                hashes.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        // Linhas cujo hash falhou são reportadas e ficam fora do bloco gravado
+        List<Valido<PrestadorServico>> hashados = new ArrayList<>(validos.size());
+        for (int i = 0; i < validos.size(); i++) {
+            Valido<PrestadorServico> valido = validos.get(i);
+            try {
+                hashes.get(i).join();
+                hashados.add(valido);
+            } catch (CompletionException | CancellationException e) {
+                Throwable causa = e.getCause() != null ? e.getCause() : e;
+                logger.error("Falha ao gerar o hash da senha da linha {}: {}", valido.numero(), causa.getMessage());
+                fail(result, valido.numero(), "Falha ao gerar o hash da senha: " + causa.getMessage());
+                PrestadorServico prestador = valido.entidade();
+                emailsDoBloco.remove(prestador.getEmail());
+                cpfsDoBloco.remove(prestador.getCpf());
+                cnpjsDoBloco.remove(prestador.getCnpj());
+            }
+        }
+
+        if (persist(hashados, result)) {
+            emails.addAll(emailsDoBloco);
+            cpfs.addAll(cpfsDoBloco);
+            cnpjs.addAll(cnpjsDoBloco);
+        }
+    }
+
+    private void importAnuncios(List<Linha<AnuncioImportRow>> chunk, ImportResultDTO result) {
+        // Resolve os prestadores do bloco inteiro: um SELECT pelos IDs e outro pelos emails
+        Set<Long> ids = chunk.stream().map(linha -> linha.row().getPrestadorId()).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> emails = chunk.stream().filter(linha -> linha.row().getPrestadorId() == null)
+                .map(linha -> linha.row().getPrestadorEmail()).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> idsVivos = ids.isEmpty() ? Set.of()
+                : prestadorServicoRepository.findByIdInAndDeletedAtIsNull(ids).stream().map(PrestadorRef::getId)
+                        .collect(Collectors.toSet());
+        Map<String, Long> idsPorEmail = emails.isEmpty() ? Map.of()
+                : prestadorServicoRepository.findByEmailInAndDeletedAtIsNull(emails).stream()
+                        .collect(Collectors.toMap(PrestadorRef::getEmail, PrestadorRef::getId));
+
+        List<Valido<Anuncio>> validos = new ArrayList<>(chunk.size());
+        for (Linha<AnuncioImportRow> linha : chunk) {
+            AnuncioImportRow row = linha.row();
+            Anuncio anuncio = row.toEntity();
+            String erro = validate(anuncio);
+            if (erro != null) {
+                fail(result, linha.numero(), erro);
+                continue;
+            }
+            if (row.getPrestadorId() == null && row.getPrestadorEmail() == null) {
+                fail(result, linha.numero(), "Informe prestadorId ou prestadorEmail");
+                continue;
+            }
+            Long prestadorId = row.getPrestadorId() != null
+                    ? (idsVivos.contains(row.getPrestadorId()) ? row.getPrestadorId() : null)
+                    : idsPorEmail.get(row.getPrestadorEmail());
+            if (prestadorId == null) {
+                fail(result, linha.numero(), "Prestador nao encontrado");
+                continue;
+            }
+            validos.add(new Valido<>(linha.numero(), anuncio, prestadorId));
+        }
+
+        persist(validos, result,
+                valido -> valido.entidade()
+                        .setPrestadorServico(entityManager.getReference(PrestadorServico.class, valido.prestadorId())),
+                anuncios -> anuncioRepository.updateSearchVectors(anuncios.stream().map(Anuncio::getId).toList()));
+
+        // O detalhe em cache dos prestadores inclui os anúncios
+        validos.stream().map(Valido::prestadorId).distinct()
+                .forEach(prestadorId -> cacheManager.getCache(CacheConfig.PRESTADORES).evict(prestadorId));
+    }
+
+    private <E> boolean persist(List<Valido<E>> validos, ImportResultDTO result) {
+        return persist(validos, result, valido -> {
+        }, entidades -> {
+        });
+    }
+
+    // Grava o bloco em uma transação: com IDs de sequence o Hibernate agrupa os INSERTs em
+    // lotes de hibernate.jdbc.batch_size. Se o banco recusar o bloco (ex.: cadastro
+    // concorrente com o mesmo email), todas as linhas dele são reportadas. Retorna se o bloco foi gravado
+    private <E> boolean persist(List<Valido<E>> validos, ImportResultDTO result, Consumer<Valido<E>> beforePersist,
+            Consumer<List<E>> afterFlush) {
+        if (validos.isEmpty()) {
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                validos.forEach(valido -> {
+                    beforePersist.accept(valido);
+                    entityManager.persist(valido.entidade());
+                });
+                entityManager.flush();
+                afterFlush.accept(validos.stream().map(Valido::entidade).toList());
+                // Não acumula as entidades gravadas no contexto de persistência da requisição
+                entityManager.clear();
+            });
+            result.setImportados(result.getImportados() + validos.size());
+            return true;
+        } catch (RuntimeException e) {
+            entityManager.clear();
+            String causa = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            logger.error("Bloco da importacao nao gravado: {}", causa);
+            validos.forEach(valido -> fail(result, valido.numero(), "Bloco nao gravado: " + causa));
+            return false;
+        }
+    }
+
+    private <E> Set<String> existing(List<Valido<E>> validos, Function<E, String> column,
+            Function<Collection<String>, List<String>> query) {
+        Set<String> values = validos.stream().map(Valido::entidade).map(column).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return values.isEmpty() ? Set.of() : new HashSet<>(query.apply(values));
+    }
+
+    private String validate(Object entidade) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entidade);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private void fail(ImportResultDTO result, long numero, String erro) {
+        result.setFalhas(result.getFalhas() + 1);
+        if (result.getErros().size() < maxErrors) {
+            result.getErros().add(new ImportResultDTO.Erro(numero, erro));
+        }
+    }
+
+}
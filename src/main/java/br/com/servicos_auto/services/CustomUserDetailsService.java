@@ -2,12 +2,16 @@ package br.com.servicos_auto.services;
 
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.servicos_auto.models.PrestadorServico;
 import br.com.servicos_auto.models.Usuario;
@@ -15,7 +19,9 @@ import br.com.servicos_auto.repositories.PrestadorServicoRepository;
 import br.com.servicos_auto.repositories.UsuarioRepository;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
     @Autowired
     private UsuarioRepository usuarioRepository;
@@ -50,4 +56,21 @@ public class CustomUserDetailsService implements UserDetailsService {
                         .map(role -> new SimpleGrantedAuthority(role.name()))
                         .collect(Collectors.toSet()));
     }
+
+    // Chamado pelo Spring Security após um login bem-sucedido quando o hash gravado usa um
+    // custo menor que o configurado: grava o hash refeito com a senha recém-verificada
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        usuarioRepository.findByEmail(user.getUsername()).ifPresentOrElse(
+                usuario -> usuario.setSenha(newPassword),
+                () -> prestadorServicoRepository.findByEmail(user.getUsername())
+                        .ifPresent(prestadorServico -> prestadorServico.setSenha(newPassword)));
+        logger.info("Hash de senha atualizado para o custo configurado: {}", user.getUsername());
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
 }
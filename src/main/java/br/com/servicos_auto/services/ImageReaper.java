@@ -0,0 +1,174 @@
+package br.com.servicos_auto.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.servicos_auto.models.Image;
+import br.com.servicos_auto.models.ReaperCheckpoint;
+import br.com.servicos_auto.repositories.ImageRepository;
+import br.com.servicos_auto.repositories.ReaperCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Remove as imagens cujo dono foi excluído (soft delete) há mais que o período de carência:
+// apaga o objeto no armazenamento, em lotes e com limite de remoções por segundo, e depois
+// as linhas com um único DELETE por lote. O último ID processado fica em reaper_checkpoint
+// para retomar de onde parou após um reinício; ao chegar no fim volta ao início.
+// Imagens que falham (Imgur fora do ar etc.) ficam para a próxima volta
+@Service
+@ConditionalOnProperty(name = "images.reaper.enabled", havingValue = "true", matchIfMissing = true)
+public class ImageReaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageReaper.class);
+
+    private static final String CHECKPOINT = "image-reaper";
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ReaperCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    private final Duration gracePeriod;
+
+    private final int batchSize;
+
+    private final int maxBatchesPerRun;
+
+    // Intervalo mínimo entre duas remoções no armazenamento
+    private final long pauseMillis;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final Counter reaped;
+
+    private final Counter failed;
+
+    public ImageReaper(MeterRegistry meterRegistry,
+            @Value("${images.reaper.grace-period:7d}") Duration gracePeriod,
+            @Value("${images.reaper.batch-size:50}") int batchSize,
+            @Value("${images.reaper.max-batches-per-run:20}") int maxBatchesPerRun,
+            @Value("${images.reaper.deletes-per-second:5}") double deletesPerSecond) {
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        if (deletesPerSecond <= 0) {
+            throw new IllegalArgumentException("images.reaper.deletes-per-second deve ser positivo");
+        }
+        this.pauseMillis = (long) (1000 / deletesPerSecond);
+        Gauge.builder("images.reaper.backlog", backlog, AtomicLong::get)
+                .description("Imagens orfas aguardando remocao")
+                .register(meterRegistry);
+        this.reaped = Counter.builder("images.reaper.deleted").tag("result", "ok").register(meterRegistry);
+        this.failed = Counter.builder("images.reaper.deleted").tag("result", "failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${images.reaper.interval:10m}", initialDelayString = "${images.reaper.initial-delay:1m}")
+    public void run() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        backlog.set(imageRepository.countOrphaned(cutoff));
+        if (backlog.get() == 0) {
+            return;
+        }
+
+        ReaperCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .orElseGet(() -> new ReaperCheckpoint(CHECKPOINT));
+        logger.info("Removendo imagens orfas: {} pendentes, a partir do ID {}", backlog.get(), checkpoint.getLastId());
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<Image> batch = imageRepository.findOrphanedAfter(cutoff, checkpoint.getLastId(), Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                // Fim da tabela: a próxima execução recomeça do início e pega as que falharam
+                checkpoint.setLastId(0L);
+                saveCheckpoint(checkpoint);
+                break;
+            }
+
+            reap(batch);
+            checkpoint.setLastId(batch.get(batch.size() - 1).getId());
+            saveCheckpoint(checkpoint);
+        }
+
+        backlog.set(imageRepository.countOrphaned(cutoff));
+    }
+
+    private void reap(List<Image> batch) {
+        List<Long> removable = new ArrayList<>(batch.size());
+
+        // Com a deduplicação, várias linhas do lote podem apontar para o mesmo objeto: são
+        // tratadas juntas e o objeto é apagado uma única vez
+        Map<String, List<Image>> byObject = new LinkedHashMap<>();
+        for (Image image : batch) {
+            String key = storageKey(image);
+            String object = key != null ? storageBackend(image) + '|' + key : "id:" + image.getId();
+            byObject.computeIfAbsent(object, k -> new ArrayList<>()).add(image);
+        }
+
+        for (List<Image> images : byObject.values()) {
+            Image image = images.get(0);
+            List<Long> ids = images.stream().map(Image::getId).toList();
+            String backend = storageBackend(image);
+            String key = storageKey(image);
+            try {
+                // Outra imagem (viva ou ainda não removida) aponta para o mesmo objeto: só as linhas saem
+                if (key != null && imageRepository.countOtherReferences(key, ids) > 0) {
+                    removable.addAll(ids);
+                    continue;
+                }
+                if (!backend.equals(imageStorage.backend())) {
+                    logger.warn("Imagens {} estao no backend {}, inativo neste servidor; mantidas", ids, backend);
+                    failed.increment(ids.size());
+                    continue;
+                }
+                imageStorage.delete(image);
+                removable.addAll(ids);
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Erro ao remover as imagens {} do armazenamento: {}", ids, e.getMessage());
+                failed.increment(ids.size());
+            }
+        }
+
+        if (!removable.isEmpty()) {
+            imageRepository.deleteAllByIdInBatch(removable);
+            reaped.increment(removable.size());
+            logger.info("{} imagens orfas removidas", removable.size());
+        }
+    }
+
+    private static String storageBackend(Image image) {
+        return Objects.requireNonNullElse(image.getStorageBackend(), ImgurImageStorage.BACKEND);
+    }
+
+    private static String storageKey(Image image) {
+        return image.getStorageKey() != null ? image.getStorageKey() : image.getImgurId();
+    }
+
+    private void saveCheckpoint(ReaperCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+}
@@ -1,7 +1,12 @@
 package br.com.servicos_auto.services;
 
+import br.com.servicos_auto.configs.CacheConfig;
+import br.com.servicos_auto.configs.WorkerThreads;
 import br.com.servicos_auto.models.Anuncio;
 import br.com.servicos_auto.models.Image;
+import br.com.servicos_auto.models.ImageOwner;
+import br.com.servicos_auto.models.ImageUploadResultDTO;
+import br.com.servicos_auto.models.ImageVariant;
 import br.com.servicos_auto.models.PrestadorServico;
 import br.com.servicos_auto.models.Usuario;
 import br.com.servicos_auto.repositories.AnuncioRepository;
@@ -13,39 +18,49 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 
 @Service
 public class ImageService {
 
     private static final Logger logger = LoggerFactory.getLogger(ImageService.class);
 
-    @Value("${imgur.client-id}")
-    private String clientId;
-
-    @Value("${imgur.client-secret}")
-    private String clientSecret;
-
-    @Value("${imgur.refresh_token}")
-    private String refreshToken;
-
-    private String accessToken;
-
-    private final String BASE_URL = "https://api.imgur.com/3";
-
     @Autowired
     private ImageRepository imageRepository;
 
@@ -58,222 +73,400 @@ public class ImageService {
     @Autowired
     private AnuncioRepository anuncioRepository;
 
-    private final WebClient webClient;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ImageStorage imageStorage;
 
-    public ImageService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder
-                .baseUrl(BASE_URL)
-                .build();
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    // Uploads cujo conteúdo já estava armazenado (hit) ou não (miss)
+    private final Counter dedupeHits;
+
+    private final Counter dedupeMisses;
+
+    private final int batchMaxFiles;
+
+    // Pool compartilhado pelos uploads em lote: limita quantos envios ao armazenamento rodam ao mesmo tempo
+    private final ExecutorService batchExecutor;
+
+    // Upload em streaming: tamanho máximo, tamanho do bloco lido por vez e diretório temporário
+    private final DataSize streamMaxSize;
+
+    private final DataSize streamChunkSize;
+
+    private final Path streamSpoolDir;
+
+    public ImageService(MeterRegistry meterRegistry, WorkerThreads workerThreads,
+            @Value("${uploads.batch.concurrency:4}") int batchConcurrency,
+            @Value("${uploads.batch.max-files:20}") int batchMaxFiles,
+            @Value("${uploads.stream.max-size:10MB}") DataSize streamMaxSize,
+            @Value("${uploads.stream.chunk-size:64KB}") DataSize streamChunkSize,
+            @Value("${uploads.stream.spool-dir:${java.io.tmpdir}/servicos_auto-stream}") String streamSpoolDir)
+            throws IOException {
+        this.streamMaxSize = streamMaxSize;
+        this.streamChunkSize = streamChunkSize;
+        this.streamSpoolDir = Files.createDirectories(Paths.get(streamSpoolDir));
+        this.dedupeHits = Counter.builder("images.upload.dedupe")
+                .description("Uploads por resultado da deduplicacao por SHA-256")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.dedupeMisses = Counter.builder("images.upload.dedupe")
+                .description("Uploads por resultado da deduplicacao por SHA-256")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.batchMaxFiles = batchMaxFiles;
+        this.batchExecutor = Executors.newFixedThreadPool(batchConcurrency, workerThreads.factory("upload-batch-"));
     }
 
     public Image uploadUsuarioImage(MultipartFile file, Long usuarioId) {
-        // Obtém o usuário pelo ID
-        Usuario usuario = usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario nao encontrado"));
-        // Garante que o access token esteja ativo
-        ensureValidAccessToken();
+        return upload(ImageOwner.USUARIO, usuarioId, file);
+    }
+
+    public Image uploadPrestadorImage(MultipartFile file, Long prestadorId) {
+        return upload(ImageOwner.PRESTADOR_SERVICO, prestadorId, file);
+    }
+
+    public Image uploadAnuncioImage(MultipartFile file, Long anuncioId) {
+        return upload(ImageOwner.ANUNCIO, anuncioId, file);
+    }
+
+    // Envia o arquivo ao armazenamento e grava a imagem vinculada ao dono informado
+    public Image upload(ImageOwner owner, Long ownerId, MultipartFile file) {
+        // Obtém o dono antes do upload, para não enviar imagens de donos inexistentes
+        Consumer<Image> attachOwner = resolveOwner(owner, ownerId);
+        return save(uploadToStorage(file), attachOwner);
+    }
+
+    // Como upload, para conteúdo já gravado em disco por quem calculou o SHA-256 na mesma
+    // leitura, evitando uma leitura extra do arquivo só para o hash
+    public Image upload(ImageOwner owner, Long ownerId, Resource content, String contentHash) {
+        Consumer<Image> attachOwner = resolveOwner(owner, ownerId);
+        return save(uploadToStorage(content, contentHash), attachOwner);
+    }
+
+    private Image save(Image image, Consumer<Image> attachOwner) {
+        attachOwner.accept(image);
+
+        // Salva a imagem no banco de dados
+        Image savedImage = imageRepository.save(image);
+        evictOwnerCaches(savedImage);
+        generateVariants(savedImage);
+        return savedImage;
+    }
+
+    // Upload a partir do corpo bruto da requisição, sem multipart: o stream é lido em blocos
+    // de tamanho fixo para um arquivo temporário, calculando o SHA-256 e conferindo o limite
+    // de tamanho durante a leitura. A memória usada por upload é constante; a leitura
+    // bloqueante faz o cliente esperar enquanto o disco não acompanha
+    public Image uploadStream(ImageOwner owner, Long ownerId, InputStream body, String contentType,
+            long contentLength) {
+        if (contentLength > streamMaxSize.toBytes()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Imagem maior que " + streamMaxSize);
+        }
+        Consumer<Image> attachOwner = resolveOwner(owner, ownerId);
+
+        Path spooled = null;
         try {
-            // Log do access token
-            logger.info("Utilizando access token: {}", accessToken);
-            // Faz o upload da imagem no Imgur
-            String response = webClient.post()
-                    .uri("/image")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken) // Token autenticado
-                    .contentType(MediaType.MULTIPART_FORM_DATA)
-                    .body(BodyInserters.fromMultipartData("image", file.getResource())
-                            .with("client_id", clientId)) // Garante que a conta seja reconhecida
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            // Log da resposta do Imgur
-            logger.info("Resposta do Imgur: {}", response);
-            // Extrai os dados da resposta do Imgur
-            JsonNode jsonNode = new ObjectMapper().readTree(response);
-            JsonNode dataNode = jsonNode.get("data");
-
-            if (dataNode == null) {
-                logger.error("Erro ao receber os dados da imagem: {}", response);
-                throw new RuntimeException("Erro ao obter dados da imagem do Imgur");
-            }
+            String extension = MediaType.parseMediaType(contentType).getSubtype().replace("jpeg", "jpg");
+            spooled = Files.createTempFile(streamSpoolDir, "stream-", "." + extension);
+            String contentHash = spool(body, spooled);
+
+            return save(uploadToStorage(new FileSystemResource(spooled), contentHash), attachOwner);
+        } catch (IOException e) {
+            logger.error("Erro ao receber imagem em streaming: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falha ao receber a imagem");
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
 
-            // Cria uma nova entidade Image com os dados do Imgur
-            Image image = new Image();
-            image.setUrl(dataNode.get("link").asText());
-            image.setImgurId(dataNode.get("id").asText());
-            image.setImgurDeletehash(dataNode.get("deletehash").asText());
-            image.setType(dataNode.get("type").asText());
-            image.setUploadedAt(LocalDateTime.now());
-            image.setUsuario(usuario);
-
-            // Salva a imagem no banco de dados
-            return imageRepository.save(image);
-        } catch (Exception e) {
-            logger.error("Erro ao fazer upload da imagem: {}", e.getMessage());
-            throw new RuntimeException("Falha ao fazer upload da imagem", e);
+    // Copia o corpo para o arquivo em blocos de streamChunkSize e devolve o SHA-256, calculado
+    // pelo DigestInputStream na mesma leitura. Interrompe com 413 assim que o limite é
+    // ultrapassado, mesmo sem Content-Length
+    private String spool(InputStream body, Path target) throws IOException {
+        MessageDigest digest = newSha256();
+        long maxBytes = streamMaxSize.toBytes();
+        long total = 0;
+        byte[] buffer = new byte[(int) streamChunkSize.toBytes()];
+        try (InputStream in = new DigestInputStream(body, digest); OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Imagem maior que " + streamMaxSize);
+                }
+                out.write(buffer, 0, read);
+            }
         }
+        if (total == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nenhum conteudo enviado");
+        }
+        return HexFormat.of().formatHex(digest.digest());
     }
 
-    public Image uploadPrestadorImage(MultipartFile file, Long prestadorId) {
-        // Obtém o usuário pelo ID
-        PrestadorServico prestadorServico = prestadorServicoRepository.findById(prestadorId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Prestador nao encontrado"));
-        // Garante que o access token esteja ativo
-        ensureValidAccessToken();
-        try {
-            // Log do access token
-            logger.info("Utilizando access token: {}", accessToken);
-            // Faz o upload da imagem no Imgur
-            String response = webClient.post()
-                    .uri("/image")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken) // Token autenticado
-                    .contentType(MediaType.MULTIPART_FORM_DATA)
-                    .body(BodyInserters.fromMultipartData("image", file.getResource())
-                            .with("client_id", clientId)) // Garante que a conta seja reconhecida
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            // Log da resposta do Imgur
-            logger.info("Resposta do Imgur: {}", response);
-            // Extrai os dados da resposta do Imgur
-            JsonNode jsonNode = new ObjectMapper().readTree(response);
-            JsonNode dataNode = jsonNode.get("data");
-
-            if (dataNode == null) {
-                logger.error("Erro ao receber os dados da imagem: {}", response);
-                throw new RuntimeException("Erro ao obter dados da imagem do Imgur");
+    // Envia vários arquivos ao armazenamento em paralelo (limitado pelo pool) e grava todas as
+    // imagens enviadas com sucesso em um único saveAll, com INSERTs em lote. O resultado
+    // traz uma entrada por arquivo, na ordem recebida
+    public List<ImageUploadResultDTO> uploadBatch(ImageOwner owner, Long ownerId, List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nenhum arquivo enviado");
+        }
+        if (files.size() > batchMaxFiles) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Maximo de " + batchMaxFiles + " arquivos por requisicao");
+        }
+
+        Consumer<Image> attachOwner = resolveOwner(owner, ownerId);
+
+        List<CompletableFuture<Image>> uploads = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            if (!isImage(file)) {
+                uploads.add(CompletableFuture.failedFuture(new IllegalArgumentException("Arquivo nao e uma imagem")));
+            } else {
+                uploads.add(CompletableFuture.supplyAsync(() -> uploadToStorage(file), batchExecutor));
             }
+        }
+        CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+                .exceptionally(e -> null)
+                .join();
+
+        List<Image> uploaded = new ArrayList<>();
+        for (CompletableFuture<Image> upload : uploads) {
+            if (!upload.isCompletedExceptionally()) {
+                Image image = upload.join();
+                attachOwner.accept(image);
+                uploaded.add(image);
+            }
+        }
 
-            // Cria uma nova entidade Image com os dados do Imgur
-            Image image = new Image();
-            image.setUrl(dataNode.get("link").asText());
-            image.setImgurId(dataNode.get("id").asText());
-            image.setImgurDeletehash(dataNode.get("deletehash").asText());
-            image.setType(dataNode.get("type").asText());
-            image.setUploadedAt(LocalDateTime.now());
-            image.setPrestadorServico(prestadorServico);
-
-            // Salva a imagem no banco de dados
-            return imageRepository.save(image);
-        } catch (Exception e) {
-            logger.error("Erro ao fazer upload da imagem: {}", e.getMessage());
-            throw new RuntimeException("Falha ao fazer upload da imagem", e);
+        if (!uploaded.isEmpty()) {
+            // saveAll roda em uma única transação
+            imageRepository.saveAll(uploaded);
+            evictOwnerCaches(uploaded.get(0));
+            uploaded.forEach(this::generateVariants);
+        }
+        logger.info("Upload em lote para {} {}: {} de {} arquivos enviados", owner, ownerId, uploaded.size(),
+                files.size());
+
+        List<ImageUploadResultDTO> results = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            String filename = files.get(i).getOriginalFilename();
+            CompletableFuture<Image> upload = uploads.get(i);
+            if (upload.isCompletedExceptionally()) {
+                Throwable cause = upload.handle((image, e) -> e instanceof CompletionException ? e.getCause() : e)
+                        .join();
+                results.add(ImageUploadResultDTO.falha(filename, cause.getMessage()));
+            } else {
+                results.add(ImageUploadResultDTO.ok(filename, upload.join()));
+            }
         }
+        return results;
     }
 
-    public Image uploadAnuncioImage(MultipartFile file, Long anuncioId) {
-        // Obtém o usuário pelo ID
-        Anuncio anuncio = anuncioRepository.findById(anuncioId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Anuncio nao encontrado"));
-        // Garante que o access token esteja ativo
-        ensureValidAccessToken();
-        try {
-            // Log do access token
-            logger.info("Utilizando access token: {}", accessToken);
-            // Faz o upload da imagem no Imgur
-            String response = webClient.post()
-                    .uri("/image")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken) // Token autenticado
-                    .contentType(MediaType.MULTIPART_FORM_DATA)
-                    .body(BodyInserters.fromMultipartData("image", file.getResource())
-                            .with("client_id", clientId)) // Garante que a conta seja reconhecida
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            // Log da resposta do Imgur
-            logger.info("Resposta do Imgur: {}", response);
-            // Extrai os dados da resposta do Imgur
-            JsonNode jsonNode = new ObjectMapper().readTree(response);
-            JsonNode dataNode = jsonNode.get("data");
-
-            if (dataNode == null) {
-                logger.error("Erro ao receber os dados da imagem: {}", response);
-                throw new RuntimeException("Erro ao obter dados da imagem do Imgur");
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdown();
+    }
+
+    // Conteúdo de GET /api/images/{id}/{variant}: o arquivo local com ETag e Content-Type
+    // ou, para imagens de outro backend (e variantes ainda não geradas), a URL para redirecionar
+    public record ServedImage(Resource resource, String etag, MediaType mediaType, String redirectUrl) {
+
+        static ServedImage redirect(String url) {
+            return new ServedImage(null, null, null, url);
+        }
+
+    }
+
+    public ServedImage serve(Long id, ImageVariant variant) {
+        Image image = imageRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Imagem nao encontrada"));
+
+        String key = switch (variant) {
+            case ORIGINAL -> image.getStorageKey();
+            case MEDIUM -> image.getMediumKey();
+            case THUMBNAIL -> image.getThumbnailKey();
+        };
+
+        if (!LocalImageStorage.BACKEND.equals(image.getStorageBackend())) {
+            String url = switch (variant) {
+                case ORIGINAL -> image.getUrl();
+                case MEDIUM -> image.getMediumUrl();
+                case THUMBNAIL -> image.getThumbnailUrl();
+            };
+            return ServedImage.redirect(url != null ? url : image.getUrl());
+        }
+        if (key == null) {
+            return ServedImage.redirect(ImageVariant.ORIGINAL.localUrl(id));
+        }
+        if (!(imageStorage instanceof LocalImageStorage localStorage)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Imagem indisponivel neste servidor");
+        }
+
+        Path path = localStorage.resolve(key);
+        if (!Files.isReadable(path)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Arquivo da imagem nao encontrado");
+        }
+        // A chave é endereçada pelo SHA-256 do conteúdo, que serve de ETag forte
+        String filename = path.getFileName().toString();
+        int dot = filename.indexOf('.');
+        String etag = dot > 0 ? filename.substring(0, dot) : filename;
+        MediaType mediaType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return new ServedImage(new FileSystemResource(path), etag, mediaType, null);
+    }
+
+    // Lança 400 se o tipo MIME do arquivo não for de imagem
+    public void assertImage(MultipartFile file) {
+        if (!isImage(file)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Arquivo nao e uma imagem");
+        }
+    }
+
+    private static boolean isImage(MultipartFile file) {
+        String contentType = file.getContentType();
+        return contentType != null && contentType.startsWith("image/");
+    }
+
+    // Lança 404 se o dono não existir
+    public void assertOwnerExists(ImageOwner owner, Long ownerId) {
+        resolveOwner(owner, ownerId);
+    }
+
+    private Consumer<Image> resolveOwner(ImageOwner owner, Long ownerId) {
+        return switch (owner) {
+            case USUARIO -> {
+                Usuario usuario = usuarioRepository.findById(ownerId)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario nao encontrado"));
+                yield image -> image.setUsuario(usuario);
+            }
+            case PRESTADOR_SERVICO -> {
+                PrestadorServico prestadorServico = prestadorServicoRepository.findById(ownerId)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Prestador nao encontrado"));
+                yield image -> image.setPrestadorServico(prestadorServico);
             }
+            case ANUNCIO -> {
+                Anuncio anuncio = anuncioRepository.findById(ownerId)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Anuncio nao encontrado"));
+                yield image -> image.setAnuncio(anuncio);
+            }
+        };
+    }
 
-            // Cria uma nova entidade Image com os dados do Imgur
-            Image image = new Image();
-            image.setUrl(dataNode.get("link").asText());
-            image.setImgurId(dataNode.get("id").asText());
-            image.setImgurDeletehash(dataNode.get("deletehash").asText());
-            image.setType(dataNode.get("type").asText());
-            image.setUploadedAt(LocalDateTime.now());
-            image.setAnuncio(anuncio);
-
-            // Salva a imagem no banco de dados
-            return imageRepository.save(image);
-        } catch (Exception e) {
-            logger.error("Erro ao fazer upload da imagem: {}", e.getMessage());
-            throw new RuntimeException("Falha ao fazer upload da imagem", e);
+    // Gera miniatura e variante média em segundo plano; quando ficam prontas, os detalhes
+    // em cache são invalidados de novo para passarem a exibi-las. Imagens deduplicadas
+    // herdam as variantes já geradas
+    private void generateVariants(Image image) {
+        if (image.getThumbnailUrl() == null) {
+            imageVariantService.generateAsync(image, () -> evictOwnerCaches(image));
         }
     }
 
-    public String getAccessToken() {
+    // Invalida os detalhes em cache que exibem a nova imagem
+    private void evictOwnerCaches(Image image) {
+        if (image.getPrestadorServico() != null) {
+            cacheManager.getCache(CacheConfig.PRESTADORES).evict(image.getPrestadorServico().getId());
+        }
+        if (image.getAnuncio() != null) {
+            // A imagem aparece no detalhe do anúncio e no do prestador dono dele
+            cacheManager.getCache(CacheConfig.ANUNCIOS).evict(image.getAnuncio().getId());
+            cacheManager.getCache(CacheConfig.PRESTADORES).evict(image.getAnuncio().getPrestadorServico().getId());
+        }
+    }
+
+    // Copia o arquivo do multipart para um temporário calculando o SHA-256 na mesma leitura e
+    // envia a partir da cópia: o conteúdo é lido do multipart uma única vez. A extensão
+    // original é mantida porque o armazenamento deriva o Content-Type do nome do arquivo
+    private Image uploadToStorage(MultipartFile file) {
+        Path spooled = null;
         try {
-            // // Log dos parâmetros para garantir que estão corretos
-            // logger.info("Tentando obter token com refresh_token: {}", refreshToken);
-            // logger.info("client_id: {}", clientId);
-            // logger.info("client_secret: {}", clientSecret);
-
-            // Faz a requisição para obter o access token
-            String response = webClient.post()
-                    .uri("https://api.imgur.com/oauth2/token")
-                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                    .body(BodyInserters.fromFormData("refresh_token", refreshToken)
-                            .with("client_id", clientId)
-                            .with("client_secret", clientSecret)
-                            .with("grant_type", "refresh_token"))
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            // Log da resposta para verificar o retorno
-            logger.info("Resposta de autenticação do Imgur: {}", response);
-
-            if (response == null || response.isEmpty()) {
-                logger.error("A resposta do Imgur foi nula ou vazia.");
-                throw new RuntimeException("Resposta de autenticação do Imgur invalida.");
-            }
+            String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+            spooled = Files.createTempFile(streamSpoolDir, "multipart-", extension != null ? "." + extension : "");
+            String contentHash = spool(file, spooled);
+            return uploadToStorage(new FileSystemResource(spooled), contentHash);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler a imagem", e);
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
 
-            // Extrai o access token da resposta
-            JsonNode jsonNode = new ObjectMapper().readTree(response);
-            this.accessToken = jsonNode.get("access_token").asText(); // Atualiza o access token
+    // Se o mesmo conteúdo já estiver armazenado neste backend, reaproveita o objeto existente
+    // e pula o envio; senão grava no backend configurado. Devolve a entidade Image
+    // preenchida, ainda sem dono
+    private Image uploadToStorage(Resource content, String contentHash) {
+        Image existing = imageRepository
+                .findReusable(contentHash, imageStorage.backend(), Limit.of(1))
+                .stream().findFirst().orElse(null);
+        if (existing != null) {
+            dedupeHits.increment();
+            logger.info("Conteudo {} ja armazenado na imagem {}; upload ignorado", contentHash, existing.getId());
+            return copyStoredObject(existing);
+        }
+        dedupeMisses.increment();
 
-            if (accessToken == null || accessToken.isEmpty()) {
-                logger.error("Access token não encontrado na resposta.");
-                throw new RuntimeException("Falha ao obter o access token do Imgur.");
-            }
+        ImageStorage.StoredImage stored = imageStorage.store(content, contentHash);
+
+        Image image = new Image();
+        image.setUrl(stored.url());
+        image.setStorageBackend(imageStorage.backend());
+        image.setStorageKey(stored.key());
+        if (ImgurImageStorage.BACKEND.equals(imageStorage.backend())) {
+            image.setImgurId(stored.key());
+            image.setImgurDeletehash(stored.deleteToken());
+        }
+        image.setType(stored.contentType());
+        image.setContentHash(contentHash);
+        image.setUploadedAt(LocalDateTime.now());
+        return image;
+    }
+
+    // Nova linha apontando para o mesmo objeto armazenado
+    private static Image copyStoredObject(Image existing) {
+        Image image = new Image();
+        image.setUrl(existing.getUrl());
+        image.setStorageBackend(existing.getStorageBackend());
+        image.setStorageKey(existing.getStorageKey());
+        image.setImgurId(existing.getImgurId());
+        image.setImgurDeletehash(existing.getImgurDeletehash());
+        image.setType(existing.getType());
+        image.setThumbnailUrl(existing.getThumbnailUrl());
+        image.setThumbnailKey(existing.getThumbnailKey());
+        image.setMediumUrl(existing.getMediumUrl());
+        image.setMediumKey(existing.getMediumKey());
+        image.setContentHash(existing.getContentHash());
+        image.setUploadedAt(LocalDateTime.now());
+        return image;
+    }
 
-            return this.accessToken;
-        } catch (Exception e) {
-            logger.error("Erro ao obter o access token: {}", e.getMessage());
-            throw new RuntimeException("Falha ao obter o access token", e);
+    // Copia o arquivo do multipart para o disco e devolve o SHA-256, calculado pelo
+    // DigestInputStream na mesma leitura
+    static String spool(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
         }
+        return HexFormat.of().formatHex(digest.digest());
     }
 
-    public boolean isTokenValid() {
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
         try {
-            // Verifica a validade do token
-            String response = webClient.get()
-                    .uri("/account/me")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            // Log da resposta para verificar se o token é válido
-            logger.info("Resposta da verificaçao do token: {}", response);
-
-            return true;
-        } catch (WebClientResponseException e) {
-            logger.error("Token invalido: {}", e.getMessage());
-            return false;
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Nao foi possivel remover o arquivo temporario {}: {}", path, e.getMessage());
         }
     }
 
-    public void ensureValidAccessToken() {
-        if (!isTokenValid()) {
-            logger.info("Access token invalido. Obtendo novo token...");
-            getAccessToken();
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
@@ -0,0 +1,28 @@
+package br.com.servicos_auto.services;
+
+import org.springframework.core.io.Resource;
+
+import br.com.servicos_auto.models.Image;
+
+// Onde o conteúdo das imagens é guardado. A implementação ativa é escolhida por
+// storage.backend (imgur, o padrão, ou local)
+public interface ImageStorage {
+
+    // Nome gravado em Image.storageBackend
+    String backend();
+
+    // Grava o conteúdo (cujo SHA-256 já foi calculado) e devolve onde ele ficou
+    StoredImage store(Resource content, String contentHash);
+
+    // Lê o conteúdo original da imagem
+    Resource load(Image image);
+
+    // Remove o objeto referenciado pela imagem. Com a deduplicação várias linhas podem
+    // apontar para o mesmo objeto: só chamar quando nenhuma outra imagem o referencia
+    void delete(Image image);
+
+    // key: identificador no backend; deleteToken: segredo exigido para apagar (deletehash do Imgur)
+    record StoredImage(String key, String url, String deleteToken, String contentType) {
+    }
+
+}
@@ -0,0 +1,175 @@
+package br.com.servicos_auto.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import br.com.servicos_auto.configs.WorkerThreads;
+import br.com.servicos_auto.models.Image;
+import br.com.servicos_auto.repositories.ImageRepository;
+import jakarta.annotation.PreDestroy;
+
+// Gera as variantes reduzidas (miniatura e média) de cada imagem enviada, em um pool
+// limitado fora da thread da requisição. A imagem é decodificada e reescrita a partir dos
+// pixels, o que descarta EXIF (localização, câmera etc.)
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    // Lado maior, em pixels, de cada variante
+    private final int thumbnailSize;
+
+    private final int mediumSize;
+
+    // Formato de saída do ImageIO (jpeg por padrão; webp exige um plugin ImageIO no classpath)
+    private final String format;
+
+    private final float quality;
+
+    private final ThreadPoolExecutor executor;
+
+    public ImageVariantService(WorkerThreads workerThreads,
+            @Value("${images.variants.thumbnail-size:200}") int thumbnailSize,
+            @Value("${images.variants.medium-size:800}") int mediumSize,
+            @Value("${images.variants.format:jpeg}") String format,
+            @Value("${images.variants.quality:0.8}") float quality,
+            @Value("${images.variants.concurrency:2}") int concurrency,
+            @Value("${images.variants.queue-capacity:100}") int queueCapacity) {
+        this.thumbnailSize = thumbnailSize;
+        this.mediumSize = mediumSize;
+        this.format = format;
+        this.quality = quality;
+        if (!ImageIO.getImageWritersByFormatName(format).hasNext()) {
+            throw new IllegalStateException("Nenhum ImageWriter disponivel para o formato " + format);
+        }
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreads.factory("image-variants-"));
+    }
+
+    // Agenda a geração; onDone roda depois que as variantes foram gravadas.
+    // Com a fila cheia a imagem fica sem variantes e os clientes usam a url original
+    public void generateAsync(Image image, Runnable onDone) {
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(image);
+                    onDone.run();
+                } catch (Exception e) {
+                    logger.error("Erro ao gerar variantes da imagem {}: {}", image.getId(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Fila de variantes cheia; imagem {} ficara sem variantes", image.getId());
+        }
+    }
+
+    private void generate(Image image) throws IOException {
+        BufferedImage original;
+        try (InputStream in = imageStorage.load(image).getInputStream()) {
+            original = ImageIO.read(in);
+        }
+        if (original == null) {
+            logger.warn("Formato da imagem {} nao suportado; variantes nao geradas", image.getId());
+            return;
+        }
+
+        ImageStorage.StoredImage thumbnail = store(resize(original, thumbnailSize), image.getId() + "-thumb");
+        ImageStorage.StoredImage medium = store(resize(original, mediumSize), image.getId() + "-medium");
+        imageRepository.updateVariants(image.getId(), thumbnail.url(), thumbnail.key(), medium.url(), medium.key());
+        logger.info("Variantes da imagem {} geradas", image.getId());
+    }
+
+    // Reduz mantendo a proporção, sem ampliar; o fundo transparente vira branco
+    private static BufferedImage resize(BufferedImage original, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(original.getWidth(), original.getHeight()));
+        int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(original, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private ImageStorage.StoredImage store(BufferedImage variant, String name) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        String suffix = writer.getOriginatingProvider().getFileSuffixes()[0];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes().length > 0) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(variant, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        byte[] bytes = out.toByteArray();
+        // O nome do arquivo define o Content-Type no armazenamento
+        Resource resource = new ByteArrayResource(bytes) {
+            @Override
+            public String getFilename() {
+                return name + "." + suffix;
+            }
+        };
+        return imageStorage.store(resource, sha256(bytes));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
@@ -0,0 +1,184 @@
+package br.com.servicos_auto.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+// Cliente HTTP do Imgur sobre java.net.http.HttpClient: uma única instância (conexões
+// HTTP/2 reutilizadas), corpo do upload enviado em streaming e respostas lidas direto
+// do stream para records com ObjectReaders compartilhados
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "imgur", matchIfMissing = true)
+public class ImgurClient {
+
+    private static final String BASE_URL = "https://api.imgur.com/3";
+
+    private static final String TOKEN_URL = "https://api.imgur.com/oauth2/token";
+
+    @Value("${imgur.client-id}")
+    private String clientId;
+
+    private final Duration readTimeout;
+
+    private final HttpClient httpClient;
+
+    private final ObjectReader uploadReader;
+
+    private final ObjectReader tokenReader;
+
+    public ImgurClient(ObjectMapper objectMapper,
+            @Value("${imgur.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${imgur.client.read-timeout:15s}") Duration readTimeout) {
+        this.readTimeout = readTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.uploadReader = objectMapper.readerFor(UploadResponse.class);
+        this.tokenReader = objectMapper.readerFor(TokenResponse.class);
+    }
+
+    public record UploadResponse(UploadedImage data) {
+    }
+
+    public record UploadedImage(String id, String link, String deletehash, String type) {
+    }
+
+    public record TokenResponse(@JsonProperty("access_token") String accessToken,
+            @JsonProperty("expires_in") long expiresIn) {
+    }
+
+    // Resposta de erro do Imgur (status fora de 2xx)
+    public static class ImgurHttpException extends RuntimeException {
+
+        private final int status;
+
+        public ImgurHttpException(int status, String body) {
+            super("Imgur respondeu " + status + ": " + body);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public boolean isUnauthorized() {
+            return status == 401;
+        }
+
+        public boolean isNotFound() {
+            return status == 404;
+        }
+
+        // Erros causados pela requisição (imagem inválida etc.), exceto 429
+        public boolean isClientError() {
+            return status >= 400 && status < 500 && status != 429;
+        }
+
+    }
+
+    public UploadedImage upload(Resource content, String accessToken) {
+        String boundary = "----imgur" + UUID.randomUUID();
+        String filename = content.getFilename() != null ? content.getFilename() : "image";
+        MediaType type = MediaTypeFactory.getMediaType(content).orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"client_id\"\r\n\r\n" + clientId + "\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"image\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: " + type + "\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+
+        // O arquivo é lido em blocos durante o envio, sem ser carregado inteiro na memória
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofString(head),
+                HttpRequest.BodyPublishers.ofInputStream(() -> {
+                    try {
+                        return content.getInputStream();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }),
+                HttpRequest.BodyPublishers.ofString(tail));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/image"))
+                .timeout(readTimeout)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .header(HttpHeaders.CONTENT_TYPE, "multipart/form-data; boundary=" + boundary)
+                .POST(body)
+                .build();
+        UploadResponse response = send(request, uploadReader);
+        if (response == null || response.data() == null) {
+            throw new IllegalStateException("Erro ao obter dados da imagem do Imgur");
+        }
+        return response.data();
+    }
+
+    public void delete(String deletehash, String accessToken) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/image/"
+                + URLEncoder.encode(deletehash, StandardCharsets.UTF_8)))
+                .timeout(readTimeout)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .DELETE()
+                .build();
+        send(request, null);
+    }
+
+    public TokenResponse refreshToken(String clientSecret, String refreshToken) {
+        String form = Map.of("refresh_token", refreshToken,
+                "client_id", clientId,
+                "client_secret", clientSecret,
+                "grant_type", "refresh_token")
+                .entrySet().stream()
+                .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(TOKEN_URL))
+                .timeout(readTimeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        return send(request, tokenReader);
+    }
+
+    private <T> T send(HttpRequest request, ObjectReader reader) {
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    throw new ImgurHttpException(response.statusCode(),
+                            new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                }
+                return reader != null ? reader.readValue(body) : null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha na comunicacao com o Imgur", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chamada ao Imgur interrompida", e);
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package br.com.servicos_auto.services;
+
+import java.net.MalformedURLException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.stereotype.Component;
+
+import br.com.servicos_auto.configs.ServiceUnavailableException;
+import br.com.servicos_auto.models.Image;
+
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "imgur", matchIfMissing = true)
+public class ImgurImageStorage implements ImageStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImgurImageStorage.class);
+
+    public static final String BACKEND = "imgur";
+
+    @Autowired
+    private ImgurTokenManager imgurTokenManager;
+
+    @Autowired
+    private ImgurResilience resilience;
+
+    @Autowired
+    private ImgurClient imgurClient;
+
+    @Override
+    public String backend() {
+        return BACKEND;
+    }
+
+    // O token é renovado pelo ImgurTokenManager antes de expirar; se mesmo assim o Imgur
+    // recusá-lo (401), força um refresh e tenta uma única vez de novo
+    @Override
+    public StoredImage store(Resource content, String contentHash) {
+        try {
+            String accessToken = imgurTokenManager.getAccessToken();
+            ImgurClient.UploadedImage uploaded;
+            try {
+                uploaded = resilience.upload(() -> imgurClient.upload(content, accessToken));
+            } catch (ImgurClient.ImgurHttpException e) {
+                if (!e.isUnauthorized()) {
+                    throw e;
+                }
+                logger.info("Access token recusado pelo Imgur. Renovando...");
+                String refreshed = imgurTokenManager.forceRefresh(accessToken);
+                uploaded = resilience.upload(() -> imgurClient.upload(content, refreshed));
+            }
+            logger.info("Imagem enviada ao Imgur: {} ({})", uploaded.id(), uploaded.link());
+            return new StoredImage(uploaded.id(), uploaded.link(), uploaded.deletehash(), uploaded.type());
+        } catch (ServiceUnavailableException e) {
+            // Circuit breaker aberto ou bulkhead cheio: repassa o 503 com Retry-After
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro ao fazer upload da imagem: {}", e.getMessage());
+            throw new RuntimeException("Falha ao fazer upload da imagem", e);
+        }
+    }
+
+    // As imagens do Imgur são públicas: basta baixar pelo link
+    @Override
+    public Resource load(Image image) {
+        try {
+            return new UrlResource(image.getUrl());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("URL invalida da imagem " + image.getId(), e);
+        }
+    }
+
+    // O original é removido pelo deletehash; as variantes, enviadas pela mesma conta, pelo ID
+    @Override
+    public void delete(Image image) {
+        deleteObject(image.getImgurDeletehash());
+        if (image.getThumbnailKey() != null) {
+            deleteObject(image.getThumbnailKey());
+        }
+        if (image.getMediumKey() != null) {
+            deleteObject(image.getMediumKey());
+        }
+    }
+
+    private void deleteObject(String imageHash) {
+        String accessToken = imgurTokenManager.getAccessToken();
+        try {
+            try {
+                resilience.idempotent("delete", () -> deleteImage(imageHash, accessToken));
+            } catch (ImgurClient.ImgurHttpException e) {
+                if (!e.isUnauthorized()) {
+                    throw e;
+                }
+                String refreshed = imgurTokenManager.forceRefresh(accessToken);
+                resilience.idempotent("delete", () -> deleteImage(imageHash, refreshed));
+            }
+        } catch (ImgurClient.ImgurHttpException e) {
+            if (!e.isNotFound()) {
+                throw e;
+            }
+            // Já removida no Imgur
+            logger.info("Imagem {} nao existe mais no Imgur", imageHash);
+        }
+    }
+
+    private Void deleteImage(String deletehash, String accessToken) {
+        imgurClient.delete(deletehash, accessToken);
+        return null;
+    }
+
+}
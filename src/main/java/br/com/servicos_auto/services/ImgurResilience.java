@@ -0,0 +1,132 @@
+package br.com.servicos_auto.services;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import br.com.servicos_auto.configs.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Proteções das chamadas ao Imgur:
+// - retry com backoff exponencial e jitter, apenas para chamadas idempotentes (refresh do token, delete)
+// - circuit breaker: com o Imgur falhando ou lento, novas chamadas falham na hora com 503
+// - bulkhead: limita quantos uploads ao Imgur ficam em andamento ao mesmo tempo
+// Estado do breaker, rejeições e histograma de latência (imgur.client.requests) vão para o Micrometer
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "imgur", matchIfMissing = true)
+public class ImgurResilience {
+
+    private static final String NAME = "imgur";
+
+    private final Duration waitInOpen;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Retry retry;
+
+    private final Bulkhead uploadBulkhead;
+
+    private final MeterRegistry meterRegistry;
+
+    public ImgurResilience(MeterRegistry meterRegistry,
+            @Value("${imgur.client.read-timeout:15s}") Duration readTimeout,
+            @Value("${imgur.client.retry.max-attempts:3}") int retryMaxAttempts,
+            @Value("${imgur.client.retry.initial-backoff:200ms}") Duration retryInitialBackoff,
+            @Value("${imgur.client.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${imgur.client.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${imgur.client.circuit-breaker.wait-in-open:30s}") Duration waitInOpen,
+            @Value("${imgur.client.max-concurrent-uploads:8}") int maxConcurrentUploads,
+            @Value("${imgur.client.bulkhead-max-wait:500ms}") Duration bulkheadMaxWait) {
+        this.meterRegistry = meterRegistry;
+        this.waitInOpen = waitInOpen;
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(readTimeout)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.max(1, slidingWindowSize / 2))
+                .waitDurationInOpenState(waitInOpen)
+                // Erros do cliente (imagem inválida etc.) não indicam Imgur fora do ar
+                .ignoreException(ImgurResilience::isClientError)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+
+        RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(retryMaxAttempts)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(retryInitialBackoff, 2.0, 0.5))
+                .retryOnException(e -> !isClientError(e) && !(e instanceof CallNotPermittedException))
+                .build());
+        this.retry = retries.retry(NAME);
+
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentUploads)
+                .maxWaitDuration(bulkheadMaxWait)
+                .build());
+        this.uploadBulkhead = bulkheads.bulkhead(NAME + "-upload");
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retries).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    // Upload não é idempotente: sem retry, apenas bulkhead e circuit breaker
+    public <T> T upload(Supplier<T> call) {
+        return execute("upload", CircuitBreaker.decorateSupplier(circuitBreaker,
+                Bulkhead.decorateSupplier(uploadBulkhead, call)));
+    }
+
+    public <T> T idempotent(String operation, Supplier<T> call) {
+        return execute(operation, Retry.decorateSupplier(retry,
+                CircuitBreaker.decorateSupplier(circuitBreaker, call)));
+    }
+
+    private <T> T execute(String operation, Supplier<T> decorated) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return decorated.get();
+        } catch (CallNotPermittedException e) {
+            outcome = "rejected";
+            throw new ServiceUnavailableException("Imgur indisponivel, tente novamente mais tarde", waitInOpen);
+        } catch (BulkheadFullException e) {
+            outcome = "rejected";
+            throw new ServiceUnavailableException("Muitos uploads em andamento, tente novamente", Duration.ofSeconds(1));
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("imgur.client.requests")
+                    .description("Chamadas ao Imgur")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static boolean isClientError(Throwable e) {
+        return e instanceof ImgurClient.ImgurHttpException response && response.isClientError();
+    }
+
+}
@@ -0,0 +1,137 @@
+package br.com.servicos_auto.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Mantém o access token do Imgur: renova antes de expirar (pelo expires_in devolvido no refresh),
+// deixa apenas um refresh em andamento por vez e faz os demais chamadores aguardarem o resultado dele
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "imgur", matchIfMissing = true)
+public class ImgurTokenManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImgurTokenManager.class);
+
+    // Validade assumida quando a resposta não informa expires_in
+    private static final Duration DEFAULT_EXPIRES_IN = Duration.ofHours(1);
+
+    @Value("${imgur.client-secret}")
+    private String clientSecret;
+
+    @Value("${imgur.refresh_token}")
+    private String refreshToken;
+
+    // Antecedência com que o token é renovado antes de expirar
+    @Value("${imgur.token.refresh-skew:60s}")
+    private Duration refreshSkew;
+
+    private volatile AccessToken current;
+
+    private final AtomicReference<CompletableFuture<AccessToken>> inFlight = new AtomicReference<>();
+
+    private final ImgurClient imgurClient;
+
+    private final ImgurResilience resilience;
+
+    public ImgurTokenManager(ImgurClient imgurClient, ImgurResilience resilience) {
+        this.imgurClient = imgurClient;
+        this.resilience = resilience;
+    }
+
+    // Devolve um token válido, renovando-o apenas se estiver perto de expirar
+    public String getAccessToken() {
+        AccessToken token = current;
+        if (token != null && !token.expiresWithin(refreshSkew)) {
+            return token.value();
+        }
+        return refresh(token).value();
+    }
+
+    // Chamado quando o Imgur recusa (401) o token informado
+    public String forceRefresh(String rejectedToken) {
+        AccessToken token = current;
+        if (token != null && !token.value().equals(rejectedToken)) {
+            // Outro chamador já renovou o token recusado
+            return token.value();
+        }
+        return refresh(token).value();
+    }
+
+    private AccessToken refresh(AccessToken stale) {
+        CompletableFuture<AccessToken> refreshing = new CompletableFuture<>();
+        CompletableFuture<AccessToken> existing = inFlight.compareAndExchange(null, refreshing);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            // Um refresh pode ter terminado entre a leitura de current e a obtenção da vez
+            AccessToken latest = current;
+            if (latest != null && latest != stale && !latest.expiresWithin(refreshSkew)) {
+                refreshing.complete(latest);
+                return latest;
+            }
+
+            AccessToken fresh = requestAccessToken();
+            current = fresh;
+            refreshing.complete(fresh);
+            return fresh;
+        } catch (RuntimeException e) {
+            refreshing.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private AccessToken await(CompletableFuture<AccessToken> refreshing) {
+        try {
+            return refreshing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private AccessToken requestAccessToken() {
+        try {
+            logger.info("Renovando access token do Imgur");
+            // O refresh pode ser repetido sem efeito colateral
+            ImgurClient.TokenResponse response = resilience.idempotent("token",
+                    () -> imgurClient.refreshToken(clientSecret, refreshToken));
+
+            if (response == null || response.accessToken() == null || response.accessToken().isEmpty()) {
+                logger.error("Access token não encontrado na resposta.");
+                throw new RuntimeException("Falha ao obter o access token do Imgur.");
+            }
+
+            Duration expiresIn = response.expiresIn() > 0
+                    ? Duration.ofSeconds(response.expiresIn())
+                    : DEFAULT_EXPIRES_IN;
+            logger.info("Access token do Imgur renovado; expira em {}", expiresIn);
+
+            return new AccessToken(response.accessToken(), Instant.now().plus(expiresIn));
+        } catch (RuntimeException e) {
+            logger.error("Erro ao obter o access token: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    private record AccessToken(String value, Instant expiresAt) {
+
+        boolean expiresWithin(Duration skew) {
+            return Instant.now().plus(skew).isAfter(expiresAt);
+        }
+    }
+
+}
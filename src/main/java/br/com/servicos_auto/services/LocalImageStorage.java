@@ -0,0 +1,131 @@
+package br.com.servicos_auto.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import br.com.servicos_auto.models.Image;
+
+// Guarda as imagens no disco do próprio nó. O conteúdo é copiado em streaming para um
+// arquivo temporário e depois movido para um caminho endereçado pelo SHA-256
+// (ab/cd/abcd...ext): conteúdo igual vira o mesmo arquivo
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalImageStorage implements ImageStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalImageStorage.class);
+
+    public static final String BACKEND = "local";
+
+    private final Path root;
+
+    private final Path tmpDir;
+
+    public LocalImageStorage(@Value("${storage.local.root:./data/images}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        // Fora da raiz publicada, mas no mesmo disco, para o move ser atômico
+        this.tmpDir = Files.createDirectories(this.root.resolveSibling(this.root.getFileName() + "-tmp"));
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public String backend() {
+        return BACKEND;
+    }
+
+    @Override
+    public StoredImage store(Resource content, String contentHash) {
+        MediaType mediaType = MediaTypeFactory.getMediaType(content).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+            try (InputStream in = content.getInputStream()) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String key = keyFor(contentHash, mediaType);
+            Path target = resolve(key);
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                // Mesmo conteúdo já gravado
+                Files.delete(tmp);
+            } else {
+                // Um upload concorrente do mesmo conteúdo pode sobrescrever o destino com bytes idênticos
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            logger.info("Imagem gravada em disco: {}", key);
+            // A URL pública depende do ID da imagem e é montada no ImageDTO (GET /api/images/{id}/{variant})
+            return new StoredImage(key, key, null, mediaType.toString());
+        } catch (IOException e) {
+            logger.error("Erro ao gravar imagem em disco: {}", e.getMessage());
+            deleteQuietly(tmp);
+            throw new UncheckedIOException("Falha ao gravar a imagem", e);
+        }
+    }
+
+    @Override
+    public Resource load(Image image) {
+        return new FileSystemResource(resolve(image.getStorageKey()));
+    }
+
+    @Override
+    public void delete(Image image) {
+        for (String key : new String[] { image.getStorageKey(), image.getThumbnailKey(), image.getMediumKey() }) {
+            if (key == null) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao remover a imagem " + key, e);
+            }
+        }
+    }
+
+    // Caminho do arquivo no disco, sem permitir sair da raiz
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Chave invalida: " + key);
+        }
+        return path;
+    }
+
+    private static String keyFor(String hash, MediaType mediaType) {
+        String extension = switch (mediaType.getSubtype()) {
+            case "jpeg" -> ".jpg";
+            case "png" -> ".png";
+            case "gif" -> ".gif";
+            case "webp" -> ".webp";
+            default -> "";
+        };
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Nao foi possivel remover o arquivo temporario {}: {}", path, e.getMessage());
+        }
+    }
+
+}
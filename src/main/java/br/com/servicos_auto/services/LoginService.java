@@ -0,0 +1,123 @@
+package br.com.servicos_auto.services;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import br.com.servicos_auto.configs.JwtUtil;
+import br.com.servicos_auto.configs.ServiceUnavailableException;
+import br.com.servicos_auto.configs.WorkerThreads;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// Login isolado em um pool próprio e limitado: o BCrypt de uma rajada de logins (real ou
+// credential stuffing) ocupa no máximo login.concurrency threads e não disputa CPU nem as
+// threads do Tomcat com a leitura do catálogo. O resultado é assíncrono: a thread do Tomcat
+// é liberada enquanto o login espera na fila ou roda. Com a fila cheia o login é descartado
+// com 503, e também ao exceder auth.login.timeout
+@Service
+public class LoginService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginService.class);
+
+    private final AuthenticationManager authenticationManager;
+
+    private final JwtUtil jwtUtil;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration timeout;
+
+    private final Duration retryAfter;
+
+    private final Timer queueWait;
+
+    public LoginService(AuthenticationManager authenticationManager, JwtUtil jwtUtil, MeterRegistry meterRegistry,
+            WorkerThreads workerThreads,
+            @Value("${auth.login.concurrency:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int concurrency,
+            @Value("${auth.login.queue-capacity:50}") int queueCapacity,
+            @Value("${auth.login.timeout:10s}") Duration timeout,
+            @Value("${auth.login.retry-after:2s}") Duration retryAfter) {
+        this.authenticationManager = authenticationManager;
+        this.jwtUtil = jwtUtil;
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreads.factory("login-"));
+        this.queueWait = Timer.builder("auth.login.queue.wait")
+                .description("Tempo de espera na fila do login")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("auth.login.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Logins aguardando na fila")
+                .register(meterRegistry);
+    }
+
+    // Devolve o token JWT de forma assíncrona. Falha com AuthenticationException para
+    // credenciais inválidas e com ServiceUnavailableException (503) com a fila cheia ou no timeout
+    public CompletableFuture<String> login(String email, String senha) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<String> login = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                // Expirou enquanto esperava na fila: não gasta CPU com um hash que ninguém espera.
+                // Um hash já iniciado não é interrompido (o BCrypt não verifica interrupção) e
+                // termina no pool mesmo após o timeout, ocupando a thread até o fim
+                if (login.isDone()) {
+                    return;
+                }
+                try {
+                    login.complete(authenticate(email, senha));
+                } catch (RuntimeException e) {
+                    login.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Fila de login cheia; login descartado");
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Muitas tentativas de login, tente novamente", retryAfter));
+        }
+
+        return login.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        logger.warn("Login excedeu {}; descartado", timeout);
+                        cause = new ServiceUnavailableException("Login demorou demais, tente novamente", retryAfter);
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    private String authenticate(String email, String senha) {
+        // Autentica o usuário
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(email, senha));
+
+        // Gera o token JWT com os detalhes do usuário autenticado
+        return jwtUtil.generateToken((UserDetails) authentication.getPrincipal());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
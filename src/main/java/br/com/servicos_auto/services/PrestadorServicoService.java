@@ -1,21 +1,36 @@
 package br.com.servicos_auto.services;
 
+import br.com.servicos_auto.configs.CacheConfig;
+import br.com.servicos_auto.models.AnuncioDTO;
+import br.com.servicos_auto.models.ImageDTO;
+import br.com.servicos_auto.models.OwnedImageDTO;
+import br.com.servicos_auto.models.OwnedRoleDTO;
+import br.com.servicos_auto.models.PageCursor;
+import br.com.servicos_auto.models.PageResponse;
 import br.com.servicos_auto.models.PrestadorServico;
 import br.com.servicos_auto.models.PrestadorServicoDTO;
 import br.com.servicos_auto.models.Role;
+import br.com.servicos_auto.models.SortOrder;
+import br.com.servicos_auto.repositories.AnuncioRepository;
+import br.com.servicos_auto.repositories.ImageRepository;
 import br.com.servicos_auto.repositories.PrestadorServicoRepository;
-import jakarta.transaction.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -26,24 +41,80 @@ public class PrestadorServicoService {
     @Autowired
     private PrestadorServicoRepository prestadorServicoRepository;
 
+    @Autowired
+    private AnuncioRepository anuncioRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private AnuncioService anuncioService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public List<PrestadorServicoDTO> findall() {
-        logger.info("Buscando todos os prestadores");
-        return prestadorServicoRepository.findAll().stream()
-                .map(PrestadorServicoDTO::new)
-                .collect(Collectors.toList());
+    @Autowired
+    private SoftDeleteFilter softDeleteFilter;
+
+    @Transactional(readOnly = true)
+    public PageResponse<PrestadorServicoDTO> findall(int limit, String cursor, String sort, boolean includeDeleted) {
+        logger.info("Buscando prestadores (limit: {}, sort: {})", limit, sort);
+        softDeleteFilter.apply(includeDeleted);
+        SortOrder order = SortOrder.fromParam(sort);
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.normalizeLimit(limit);
+        // Busca uma linha a mais para saber se existe próxima página
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<PrestadorServicoDTO> prestadores = switch (order) {
+            case RECENTES -> after == null
+                    ? prestadorServicoRepository.findFirstPageDesc(fetch)
+                    : prestadorServicoRepository.findPageDescAfter(after.getCreatedAt(), after.getId(), fetch);
+            case ANTIGOS -> after == null
+                    ? prestadorServicoRepository.findFirstPageAsc(fetch)
+                    : prestadorServicoRepository.findPageAscAfter(after.getCreatedAt(), after.getId(), fetch);
+        };
+
+        PageResponse<PrestadorServicoDTO> page = PageResponse.of(prestadores, pageSize,
+                PrestadorServicoDTO::getCreatedAt, PrestadorServicoDTO::getId, Function.identity());
+        fillCollections(page.getContent());
+        return page;
     }
 
-    public PrestadorServicoDTO findById(Long id) {
+    // Só o detalhe de prestadores vivos vai para o cache
+    @Cacheable(cacheNames = CacheConfig.PRESTADORES, key = "#id", condition = "!#includeDeleted")
+    @Transactional(readOnly = true)
+    public PrestadorServicoDTO findById(Long id, boolean includeDeleted) {
         logger.info("buscando prestador com o ID: ", id);
-        PrestadorServico prestadorServico = prestadorServicoRepository.findById(id)
+        softDeleteFilter.apply(includeDeleted);
+        PrestadorServicoDTO prestadorServico = prestadorServicoRepository.findDtoById(id)
                 .orElseThrow(() -> {
                     logger.error("Prestador com ID {} nao encontrado", id);
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Prestador nao encontrado");
                 });
-        return new PrestadorServicoDTO(prestadorServico);
+        fillCollections(List.of(prestadorServico));
+        return prestadorServico;
+    }
+
+    // Preenche roles, imagens e anúncios de todos os prestadores com um SELECT por coleção
+    private void fillCollections(List<PrestadorServicoDTO> prestadores) {
+        if (prestadores.isEmpty()) {
+            return;
+        }
+        List<Long> ids = prestadores.stream().map(PrestadorServicoDTO::getId).toList();
+
+        Map<Long, List<String>> roles = OwnedRoleDTO.groupByOwner(prestadorServicoRepository.findRolesByIds(ids));
+        Map<Long, List<ImageDTO>> images = OwnedImageDTO.groupByOwner(imageRepository.findDtosByPrestadorIds(ids));
+        List<AnuncioDTO> anuncios = anuncioRepository.findDtosByPrestadorIds(ids);
+        anuncioService.fillImages(anuncios);
+        Map<Long, List<AnuncioDTO>> anunciosPorPrestador = anuncios.stream()
+                .collect(Collectors.groupingBy(AnuncioDTO::getPrestadorServicoId));
+
+        prestadores.forEach(prestador -> {
+            prestador.setRoles(roles.getOrDefault(prestador.getId(), List.of()));
+            prestador.setImages(images.getOrDefault(prestador.getId(), List.of()));
+            prestador.setAnuncio(anunciosPorPrestador.getOrDefault(prestador.getId(), List.of()));
+        });
     }
 
     @Transactional
@@ -82,6 +153,7 @@ public class PrestadorServicoService {
 
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRESTADORES, key = "#id")
     @Transactional
     public PrestadorServicoDTO update(Long id, PrestadorServico prestadorServicoDetails) {
         logger.info("Atualizando prestador com o id: {}", id);
@@ -124,6 +196,7 @@ public class PrestadorServicoService {
         return new PrestadorServicoDTO(prestadorServico);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRESTADORES, key = "#id")
     public void delete(Long id) {
         logger.info("Deletando prestado com ID {}", id);
         Optional<PrestadorServico> prestadorOpt = prestadorServicoRepository.findById(id);
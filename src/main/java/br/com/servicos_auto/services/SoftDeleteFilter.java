@@ -0,0 +1,53 @@
+package br.com.servicos_auto.services;
+
+import org.hibernate.Session;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.servicos_auto.models.SoftDelete;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Liga, na transação corrente, o filtro SoftDelete que esconde anúncios, prestadores e
+// usuários excluídos em todas as consultas JPQL dessas entidades, inclusive as projeções e a
+// coleção PrestadorServico.anuncios. Incluir os excluídos é opt-in e exige ADMIN
+@Component
+public class SoftDeleteFilter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void apply(boolean includeDeleted) {
+        if (includeDeleted) {
+            if (!isAdmin()) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Somente ADMIN pode listar registros excluidos");
+            }
+            return;
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        if (session.getEnabledFilter(SoftDelete.FILTER) != null) {
+            return;
+        }
+        session.enableFilter(SoftDelete.FILTER);
+        // Com open-in-view a sessão dura a requisição inteira: desliga ao fim da transação
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                session.disableFilter(SoftDelete.FILTER);
+            }
+        });
+    }
+
+    private static boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ADMIN".equals(authority.getAuthority()));
+    }
+
+}
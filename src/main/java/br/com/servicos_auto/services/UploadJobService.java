@@ -0,0 +1,167 @@
+package br.com.servicos_auto.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.servicos_auto.configs.ServiceUnavailableException;
+import br.com.servicos_auto.configs.WorkerThreads;
+import br.com.servicos_auto.models.Image;
+import br.com.servicos_auto.models.ImageDTO;
+import br.com.servicos_auto.models.ImageOwner;
+import br.com.servicos_auto.models.UploadJobDTO;
+import br.com.servicos_auto.models.UploadJobStatus;
+import jakarta.annotation.PreDestroy;
+
+// Uploads assíncronos: o arquivo é gravado em disco, a requisição recebe 202 com o ID do job
+// e o envio ao Imgur roda em um pool limitado, fora das threads do Tomcat
+@Service
+public class UploadJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadJobService.class);
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final ImageService imageService;
+
+    private final Path spoolDir;
+
+    private final ThreadPoolExecutor executor;
+
+    // Jobs concluídos ficam consultáveis até expirar
+    private final Cache<String, UploadJobDTO> jobs;
+
+    public UploadJobService(ImageService imageService, WorkerThreads workerThreads,
+            @Value("${uploads.async.concurrency:4}") int concurrency,
+            @Value("${uploads.async.queue-capacity:100}") int queueCapacity,
+            @Value("${uploads.async.spool-dir:${java.io.tmpdir}/servicos_auto-uploads}") String spoolDir,
+            @Value("${uploads.async.job-ttl:1h}") Duration jobTtl) throws IOException {
+        this.imageService = imageService;
+        this.spoolDir = Files.createDirectories(Paths.get(spoolDir));
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreads.factory("upload-worker-"));
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobTtl)
+                .build();
+    }
+
+    public UploadJobDTO submit(MultipartFile file, ImageOwner owner, Long ownerId) {
+        // Falha cedo (400 ou 404) se o arquivo não for imagem ou o dono não existir, antes de aceitá-lo
+        imageService.assertImage(file);
+        imageService.assertOwnerExists(owner, ownerId);
+
+        Path spooled = createSpoolFile(file);
+        String contentHash = spool(file, spooled);
+        LocalDateTime now = LocalDateTime.now();
+        UploadJobDTO job = new UploadJobDTO(UUID.randomUUID().toString(), UploadJobStatus.PENDENTE, owner, ownerId,
+                null, null, now, now, currentUser());
+        jobs.put(job.getJobId(), job);
+
+        try {
+            executor.execute(() -> process(job, spooled, contentHash));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Fila de uploads cheia; job {} descartado", job.getJobId());
+            jobs.invalidate(job.getJobId());
+            deleteQuietly(spooled);
+            throw new ServiceUnavailableException("Fila de uploads cheia, tente novamente", RETRY_AFTER);
+        }
+
+        logger.info("Upload {} enfileirado para {} {}", job.getJobId(), owner, ownerId);
+        return job;
+    }
+
+    // Responde 404 (e não 403) a quem não enviou o job, para não revelar que o ID existe
+    public UploadJobDTO findById(String jobId) {
+        UploadJobDTO job = jobs.getIfPresent(jobId);
+        if (job == null || !(isAdmin() || job.getSubmittedBy().equals(currentUser()))) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload nao encontrado");
+        }
+        return job;
+    }
+
+    private void process(UploadJobDTO job, Path spooled, String contentHash) {
+        jobs.put(job.getJobId(), job.withStatus(UploadJobStatus.PROCESSANDO, null, null));
+        try {
+            Image image = imageService.upload(job.getOwner(), job.getOwnerId(), new FileSystemResource(spooled),
+                    contentHash);
+            jobs.put(job.getJobId(), job.withStatus(UploadJobStatus.CONCLUIDO, new ImageDTO(image), null));
+            logger.info("Upload {} concluido: imagem {}", job.getJobId(), image.getId());
+        } catch (Exception e) {
+            logger.error("Upload {} falhou: {}", job.getJobId(), e.getMessage());
+            jobs.put(job.getJobId(), job.withStatus(UploadJobStatus.FALHOU, null, e.getMessage()));
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    // Arquivo temporário que preserva a extensão para o Content-Type do upload
+    private Path createSpoolFile(MultipartFile file) {
+        String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+        try {
+            return Files.createTempFile(spoolDir, "upload-", extension != null ? "." + extension : "");
+        } catch (IOException e) {
+            logger.error("Erro ao criar arquivo temporario de upload: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Falha ao receber o arquivo");
+        }
+    }
+
+    // Copia o arquivo para o disco e devolve o SHA-256, calculado na mesma leitura: o worker
+    // consulta a deduplicação sem ler o arquivo de novo
+    private String spool(MultipartFile file, Path spooled) {
+        try {
+            return ImageService.spool(file, spooled);
+        } catch (IOException e) {
+            logger.error("Erro ao gravar upload em disco: {}", e.getMessage());
+            deleteQuietly(spooled);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Falha ao receber o arquivo");
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    private static boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ADMIN".equals(authority.getAuthority()));
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Nao foi possivel remover o arquivo temporario {}: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
@@ -1,12 +1,20 @@
 package br.com.servicos_auto.services;
 
+import br.com.servicos_auto.models.ImageDTO;
+import br.com.servicos_auto.models.OwnedImageDTO;
+import br.com.servicos_auto.models.OwnedRoleDTO;
+import br.com.servicos_auto.models.PageCursor;
+import br.com.servicos_auto.models.PageResponse;
 import br.com.servicos_auto.models.Role;
+import br.com.servicos_auto.models.SortOrder;
 import br.com.servicos_auto.models.Usuario;
 import br.com.servicos_auto.models.UsuarioDTO;
+import br.com.servicos_auto.repositories.ImageRepository;
 import br.com.servicos_auto.repositories.UsuarioRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -14,8 +22,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class UsuarioService {
@@ -25,25 +34,68 @@ public class UsuarioService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private ImageRepository imageRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public List<UsuarioDTO> findAll() {
-        logger.info("Buscando todos os usuarios");
-        return usuarioRepository.findAll().stream()
-                .map(UsuarioDTO::new)
-                .collect(Collectors.toList());
+    @Autowired
+    private SoftDeleteFilter softDeleteFilter;
+
+    @Transactional(readOnly = true)
+    public PageResponse<UsuarioDTO> findAll(int limit, String cursor, String sort, boolean includeDeleted) {
+        logger.info("Buscando usuarios (limit: {}, sort: {})", limit, sort);
+        softDeleteFilter.apply(includeDeleted);
+        SortOrder order = SortOrder.fromParam(sort);
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.normalizeLimit(limit);
+        // Busca uma linha a mais para saber se existe próxima página
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<UsuarioDTO> usuarios = switch (order) {
+            case RECENTES -> after == null
+                    ? usuarioRepository.findFirstPageDesc(fetch)
+                    : usuarioRepository.findPageDescAfter(after.getCreatedAt(), after.getId(), fetch);
+            case ANTIGOS -> after == null
+                    ? usuarioRepository.findFirstPageAsc(fetch)
+                    : usuarioRepository.findPageAscAfter(after.getCreatedAt(), after.getId(), fetch);
+        };
+
+        PageResponse<UsuarioDTO> page = PageResponse.of(usuarios, pageSize, UsuarioDTO::getCreatedAt,
+                UsuarioDTO::getId, Function.identity());
+        fillCollections(page.getContent());
+        return page;
     }
 
-    public UsuarioDTO findById(Long id) {
+    @Transactional(readOnly = true)
+    public UsuarioDTO findById(Long id, boolean includeDeleted) {
         logger.info("Buscando usuario com ID: {}", id);
-        Usuario usuario = usuarioRepository.findById(id)
+        softDeleteFilter.apply(includeDeleted);
+        UsuarioDTO usuario = usuarioRepository.findDtoById(id)
                 .orElseThrow(() -> {
                     logger.error("usuarios com ID {} nao encontrado", id);
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "usuarios nao encontrado");
                 });
 
-        return new UsuarioDTO(usuario); // Retorna o DTO
+        fillCollections(List.of(usuario));
+        return usuario; // Retorna o DTO
+    }
+
+    // Preenche roles e imagens de todos os usuários com um SELECT por coleção
+    private void fillCollections(List<UsuarioDTO> usuarios) {
+        if (usuarios.isEmpty()) {
+            return;
+        }
+        List<Long> ids = usuarios.stream().map(UsuarioDTO::getId).toList();
+
+        Map<Long, List<String>> roles = OwnedRoleDTO.groupByOwner(usuarioRepository.findRolesByIds(ids));
+        Map<Long, List<ImageDTO>> images = OwnedImageDTO.groupByOwner(imageRepository.findDtosByUsuarioIds(ids));
+
+        usuarios.forEach(usuario -> {
+            usuario.setRoles(roles.getOrDefault(usuario.getId(), List.of()));
+            usuario.setImages(images.getOrDefault(usuario.getId(), List.of()));
+        });
     }
 
     @Transactional
@@ -0,0 +1,131 @@
+-- Esquema que o ddl-auto=update e os inicializadores criavam até a adoção do Flyway.
+-- Tudo é idempotente: bancos novos são criados do zero; bancos existentes recebem o
+-- baseline (versão 0) e esta migração só acrescenta o que o esquema antigo não tinha
+-- (colunas de image, índices, busca textual).
+
+CREATE TABLE IF NOT EXISTS usuario (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome       varchar(255),
+    email      varchar(255) NOT NULL,
+    cpf        varchar(255) NOT NULL,
+    senha      varchar(255),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    deleted_at timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS usuario_roles (
+    usuario_id bigint NOT NULL CONSTRAINT fk_usuario_roles_usuario REFERENCES usuario (id),
+    role       varchar(255) CHECK (role IN ('USUARIO', 'PRESTADOR_SERVICO', 'ADMIN'))
+);
+
+CREATE TABLE IF NOT EXISTS prestador_servico (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome       varchar(255),
+    email      varchar(255) NOT NULL,
+    cpf        varchar(255),
+    cnpj       varchar(255),
+    senha      varchar(255),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    deleted_at timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS prestador_roles (
+    prestador_id bigint NOT NULL CONSTRAINT fk_prestador_roles_prestador REFERENCES prestador_servico (id),
+    role         varchar(255) CHECK (role IN ('USUARIO', 'PRESTADOR_SERVICO', 'ADMIN'))
+);
+
+CREATE TABLE IF NOT EXISTS anuncio (
+    id                   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    titulo               varchar(255),
+    descricao            varchar(255),
+    prestador_servico_id bigint NOT NULL CONSTRAINT fk_anuncio_prestador_servico REFERENCES prestador_servico (id),
+    created_at           timestamp(6) NOT NULL,
+    updated_at           timestamp(6),
+    deleted_at           timestamp(6)
+);
+
+CREATE SEQUENCE IF NOT EXISTS image_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS image (
+    id                   bigint PRIMARY KEY,
+    url                  varchar(255),
+    storage_backend      varchar(255),
+    storage_key          varchar(255),
+    content_hash         varchar(64),
+    imgur_id             varchar(255),
+    imgur_deletehash     varchar(255),
+    type                 varchar(255),
+    thumbnail_url        varchar(255),
+    thumbnail_key        varchar(255),
+    medium_url           varchar(255),
+    medium_key           varchar(255),
+    uploaded_at          timestamp(6),
+    usuario_id           bigint CONSTRAINT fk_image_usuario REFERENCES usuario (id),
+    prestador_servico_id bigint CONSTRAINT fk_image_prestador_servico REFERENCES prestador_servico (id),
+    anuncio_id           bigint CONSTRAINT fk_image_anuncio REFERENCES anuncio (id)
+);
+
+-- Bancos criados antes do armazenamento plugável, da deduplicação e das variantes já têm a
+-- tabela image sem estas colunas: o CREATE TABLE acima não faz nada neles
+ALTER TABLE image ADD COLUMN IF NOT EXISTS storage_backend varchar(255);
+ALTER TABLE image ADD COLUMN IF NOT EXISTS storage_key varchar(255);
+ALTER TABLE image ADD COLUMN IF NOT EXISTS content_hash varchar(64);
+ALTER TABLE image ADD COLUMN IF NOT EXISTS thumbnail_url varchar(255);
+ALTER TABLE image ADD COLUMN IF NOT EXISTS thumbnail_key varchar(255);
+ALTER TABLE image ADD COLUMN IF NOT EXISTS medium_url varchar(255);
+ALTER TABLE image ADD COLUMN IF NOT EXISTS medium_key varchar(255);
+
+-- A tabela image usava IDENTITY: a sequence fica depois do maior ID. O otimizador pooled
+-- usa os IDs (valor - 50, valor], por isso a folga de um bloco
+SELECT setval('image_seq', GREATEST(
+    (SELECT last_value FROM image_seq),
+    (SELECT COALESCE(MAX(id), 0) FROM image) + 50));
+
+CREATE TABLE IF NOT EXISTS reaper_checkpoint (
+    name       varchar(255) PRIMARY KEY,
+    last_id    bigint NOT NULL,
+    updated_at timestamp(6)
+);
+
+-- Paginação por cursor (created_at, id) e deduplicação de uploads
+CREATE INDEX IF NOT EXISTS idx_usuario_created_at_id ON usuario (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_prestador_servico_created_at_id ON prestador_servico (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_anuncio_created_at_id ON anuncio (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_image_content_hash ON image (content_hash);
+
+-- Índices parciais das linhas vivas, usados com o filtro de soft delete
+CREATE INDEX IF NOT EXISTS idx_usuario_vivos_created_at_id ON usuario (created_at, id)
+    WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_prestador_servico_vivos_created_at_id ON prestador_servico (created_at, id)
+    WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_anuncio_vivos_created_at_id ON anuncio (created_at, id)
+    WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_anuncio_vivos_prestador ON anuncio (prestador_servico_id)
+    WHERE deleted_at IS NULL;
+
+-- Busca textual de anúncios: configuração portuguese_unaccent (stemming em português +
+-- remoção de acentos), coluna tsvector e índice GIN parcial
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'portuguese_unaccent') THEN
+        CREATE TEXT SEARCH CONFIGURATION portuguese_unaccent (COPY = portuguese);
+        ALTER TEXT SEARCH CONFIGURATION portuguese_unaccent
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem;
+    END IF;
+END
+$$;
+
+ALTER TABLE anuncio ADD COLUMN IF NOT EXISTS search_vector tsvector;
+DROP INDEX IF EXISTS idx_anuncio_search_vector;
+CREATE INDEX IF NOT EXISTS idx_anuncio_search_vector_vivos ON anuncio USING GIN (search_vector)
+    WHERE deleted_at IS NULL;
+
+-- Mesma expressão de AnuncioRepository.SEARCH_VECTOR
+UPDATE anuncio
+SET search_vector = setweight(to_tsvector('portuguese_unaccent', coalesce(titulo, '')), 'A')
+        || setweight(to_tsvector('portuguese_unaccent', coalesce(descricao, '')), 'B')
+WHERE search_vector IS NULL;
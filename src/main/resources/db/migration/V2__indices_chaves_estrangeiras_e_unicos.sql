@@ -0,0 +1,36 @@
+-- O ddl-auto não indexava as chaves estrangeiras: listar os anúncios de um prestador,
+-- carregar as imagens de um dono e o ON DELETE implícito das FKs faziam varredura completa.
+CREATE INDEX IF NOT EXISTS idx_anuncio_prestador_servico_id ON anuncio (prestador_servico_id);
+CREATE INDEX IF NOT EXISTS idx_image_usuario_id ON image (usuario_id);
+CREATE INDEX IF NOT EXISTS idx_image_prestador_servico_id ON image (prestador_servico_id);
+CREATE INDEX IF NOT EXISTS idx_image_anuncio_id ON image (anuncio_id);
+CREATE INDEX IF NOT EXISTS idx_usuario_roles_usuario_id ON usuario_roles (usuario_id);
+CREATE INDEX IF NOT EXISTS idx_prestador_roles_prestador_id ON prestador_roles (prestador_id);
+
+-- Consultas findByEmail, findByCpf e findByCnpj (login e validação de cadastro). As
+-- restrições únicas com nome gerado pelo Hibernate, quando existirem, são trocadas por
+-- índices únicos com nome estável
+DO $$
+DECLARE
+    restricao record;
+BEGIN
+    FOR restricao IN
+        SELECT c.conrelid::regclass AS tabela, c.conname
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+        WHERE c.contype = 'u'
+          AND array_length(c.conkey, 1) = 1
+          AND (c.conrelid, a.attname) IN (('usuario'::regclass, 'email'), ('usuario'::regclass, 'cpf'),
+                ('prestador_servico'::regclass, 'email'), ('prestador_servico'::regclass, 'cpf'),
+                ('prestador_servico'::regclass, 'cnpj'))
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', restricao.tabela, restricao.conname);
+    END LOOP;
+END
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_usuario_email ON usuario (email);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_usuario_cpf ON usuario (cpf);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_prestador_servico_email ON prestador_servico (email);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_prestador_servico_cpf ON prestador_servico (cpf);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_prestador_servico_cnpj ON prestador_servico (cnpj);
@@ -0,0 +1,20 @@
+-- Anúncio, prestador e usuário deixam de usar IDENTITY (que impede o Hibernate de agrupar
+-- INSERTs) e passam a usar sequences com incremento 50, como image_seq. Cada sequence começa
+-- depois do maior ID existente; o otimizador pooled usa os IDs (valor - 50, valor]
+CREATE SEQUENCE IF NOT EXISTS usuario_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('usuario_seq', GREATEST(
+    (SELECT last_value FROM usuario_seq),
+    (SELECT COALESCE(MAX(id), 0) FROM usuario) + 50));
+ALTER TABLE usuario ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS prestador_servico_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('prestador_servico_seq', GREATEST(
+    (SELECT last_value FROM prestador_servico_seq),
+    (SELECT COALESCE(MAX(id), 0) FROM prestador_servico) + 50));
+ALTER TABLE prestador_servico ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS anuncio_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('anuncio_seq', GREATEST(
+    (SELECT last_value FROM anuncio_seq),
+    (SELECT COALESCE(MAX(id), 0) FROM anuncio) + 50));
+ALTER TABLE anuncio ALTER COLUMN id DROP IDENTITY IF EXISTS;
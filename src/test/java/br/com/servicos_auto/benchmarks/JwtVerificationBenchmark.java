@@ -0,0 +1,107 @@
+package br.com.servicos_auto.benchmarks;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import br.com.servicos_auto.configs.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+// Verificações de JWT por segundo, por requisição autenticada:
+// - antes: um JwtParser novo e um parse completo em extractUsername (filtro), extractUsername e
+//   extractExpiration (validateToken), como o JwtUtil fazia
+// - depois: um único parse com o parser compartilhado, com e sem o cache de tokens verificados
+//
+// Executar com: mvn test-compile && java -cp "target/test-classes:target/classes:<classpath de teste>"
+// br.com.servicos_auto.benchmarks.JwtVerificationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtVerificationBenchmark {
+
+    private Key legacyKey;
+    private String legacyToken;
+
+    private JwtUtil jwtUtil;
+    private JwtUtil cachedJwtUtil;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        userDetails = new User("benchmark@example.com", "senha123", List.of(new SimpleGrantedAuthority("USUARIO")));
+
+        jwtUtil = new JwtUtil(0);
+        cachedJwtUtil = new JwtUtil(10_000);
+        token = jwtUtil.generateToken(userDetails);
+
+        legacyKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        legacyToken = Jwts.builder()
+                .claim("roles", List.of("USUARIO"))
+                .setSubject(userDetails.getUsername())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 86400000))
+                .signWith(legacyKey)
+                .compact();
+    }
+
+    @Benchmark
+    public boolean antesParserPorChamadaTresParses() {
+        String username = legacyClaims(legacyToken).getSubject();
+        boolean sameUser = legacyClaims(legacyToken).getSubject().equals(username);
+        return sameUser && !legacyClaims(legacyToken).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean depoisParseUnico() {
+        Claims claims = jwtUtil.parseToken(token);
+        return jwtUtil.validateToken(claims, userDetails);
+    }
+
+    @Benchmark
+    public boolean depoisParseUnicoComCache() {
+        Claims claims = cachedJwtUtil.parseToken(token);
+        return cachedJwtUtil.validateToken(claims, userDetails);
+    }
+
+    private Claims legacyClaims(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(legacyKey)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+}
@@ -0,0 +1,85 @@
+package br.com.servicos_auto.benchmarks;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.servicos_auto.configs.RateLimitProperties;
+import br.com.servicos_auto.configs.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Custo do limite de taxa por requisição, com os grupos do application.properties.example e
+// 8 threads disputando os baldes:
+// - mesmoCliente: todas as threads no mesmo IP e usuário (pior caso de contenção do CAS)
+// - muitosClientes: 10 mil IPs anônimos diferentes, como uma rajada distribuída
+//
+// Executar com: mvn test-compile && java -cp "target/test-classes:target/classes:<classpath de teste>"
+// br.com.servicos_auto.benchmarks.RateLimiterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+
+    private String[] clients;
+
+    @Setup
+    public void setUp() {
+        Map<String, RateLimitProperties.Group> groups = new LinkedHashMap<>();
+        groups.put("login", new RateLimitProperties.Group(List.of("/api/auth/login"), 10, Duration.ofMinutes(1)));
+        groups.put("uploads", new RateLimitProperties.Group(List.of("/api/*/*/upload-image",
+                "/api/*/*/upload-image/*", "/api/anuncios/*/upload-images"), 30, Duration.ofMinutes(1)));
+        // Limite alto para medir o caminho em que a requisição passa
+        groups.put("api", new RateLimitProperties.Group(List.of("/api/**"), 1_000_000, Duration.ofMillis(1)));
+        rateLimiter = new RateLimiter(new RateLimitProperties(true, Duration.ofMinutes(10), 100_000, groups),
+                new SimpleMeterRegistry());
+
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long mesmoCliente() {
+        return rateLimiter.tryAcquire("/api/anuncios/42", "10.0.0.1", "benchmark@example.com", System.nanoTime());
+    }
+
+    @Benchmark
+    public long muitosClientes() {
+        String client = clients[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        return rateLimiter.tryAcquire("/api/anuncios/42", client, null, System.nanoTime());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+}
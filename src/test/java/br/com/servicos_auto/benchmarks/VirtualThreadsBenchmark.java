@@ -0,0 +1,158 @@
+package br.com.servicos_auto.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sun.net.httpserver.HttpServer;
+
+// Tempo para atender uma rajada de requisições mistas, com o Tomcat em threads de plataforma
+// (pool de 200, o padrão de server.tomcat.threads.max) ou em virtual threads:
+// - GET: segura uma conexão do "Hikari" (semáforo com o tamanho do pool) durante uma consulta de 5 ms
+// - upload: envia 64 KB a um Imgur de mentira que demora imgurLatencyMs para responder e grava a linha
+//
+// Executar com: mvn test-compile && java -cp "target/test-classes:target/classes:<classpath de teste>"
+// br.com.servicos_auto.benchmarks.VirtualThreadsBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final int REQUESTS = 2000;
+
+    // Uma a cada UPLOAD_EVERY requisições é um upload
+    private static final int UPLOAD_EVERY = 5;
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    private static final int HIKARI_POOL_SIZE = 20;
+
+    private static final long QUERY_MILLIS = 5;
+
+    @Param({ "platform", "virtual" })
+    public String threads;
+
+    @Param({ "300" })
+    public long imgurLatencyMs;
+
+    private HttpServer imgur;
+    private HttpClient httpClient;
+    private URI uploadUri;
+    private ExecutorService requestExecutor;
+    private Semaphore connectionPool;
+    private byte[] image;
+
+    @Setup
+    public void setUp() throws IOException {
+        imgur = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        imgur.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        imgur.createContext("/3/image", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            sleep(imgurLatencyMs);
+            byte[] body = "{\"data\":{\"id\":\"abc\",\"link\":\"https://i.imgur.com/abc.jpg\",\"deletehash\":\"x\",\"type\":\"image/jpeg\"}}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        imgur.start();
+
+        uploadUri = URI.create("http://127.0.0.1:" + imgur.getAddress().getPort() + "/3/image");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        connectionPool = new Semaphore(HIKARI_POOL_SIZE);
+        image = new byte[64 * 1024];
+        requestExecutor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestExecutor.shutdownNow();
+        imgur.stop(0);
+    }
+
+    @Benchmark
+    public int requisicoesMistas() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            boolean upload = i % UPLOAD_EVERY == 0;
+            responses.add(requestExecutor.submit(() -> upload ? upload() : get()));
+        }
+        int ok = 0;
+        for (Future<Integer> response : responses) {
+            ok += response.get() == 200 ? 1 : 0;
+        }
+        return ok;
+    }
+
+    private int get() throws InterruptedException {
+        query();
+        return 200;
+    }
+
+    private int upload() throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uploadUri)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(image))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        query();
+        return response.statusCode();
+    }
+
+    // Consulta bloqueante segurando uma conexão do pool
+    private void query() throws InterruptedException {
+        connectionPool.acquire();
+        try {
+            Thread.sleep(QUERY_MILLIS);
+        } finally {
+            connectionPool.release();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VirtualThreadsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+}
@@ -0,0 +1,68 @@
+package br.com.servicos_auto.configs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+class JwtUtilTest {
+
+	private final UserDetails usuario = User.withUsername("ana@example.com")
+			.password("x")
+			.authorities("USUARIO", "ADMIN")
+			.build();
+
+	@Test
+	void semCacheVerificaOTokenACadaChamada() {
+		JwtUtil jwtUtil = new JwtUtil(0);
+		String token = jwtUtil.generateToken(usuario);
+
+		Claims claims = jwtUtil.parseToken(token);
+
+		assertThat(claims.getSubject()).isEqualTo("ana@example.com");
+		assertThat(jwtUtil.extractAuthorities(claims)).extracting(GrantedAuthority::getAuthority)
+				.containsExactlyInAnyOrder("USUARIO", "ADMIN");
+		assertThat(jwtUtil.validateToken(claims, usuario)).isTrue();
+		assertThat(jwtUtil.parseToken(token)).isNotSameAs(claims);
+	}
+
+	@Test
+	void comCacheReaproveitaAsClaimsDoTokenJaVerificado() {
+		JwtUtil jwtUtil = new JwtUtil(100);
+		String token = jwtUtil.generateToken(usuario);
+
+		Claims claims = jwtUtil.parseToken(token);
+
+		assertThat(jwtUtil.parseToken(token)).isSameAs(claims);
+	}
+
+	@Test
+	void comCacheRecusaTokenAdulterado() {
+		JwtUtil jwtUtil = new JwtUtil(100);
+		String token = jwtUtil.generateToken(usuario);
+		jwtUtil.parseToken(token);
+
+		// Troca um caractere da assinatura: o hash difere e o token é verificado de novo
+		int i = token.length() - 5;
+		String adulterado = token.substring(0, i) + (token.charAt(i) == 'A' ? 'B' : 'A') + token.substring(i + 1);
+
+		assertThatThrownBy(() -> jwtUtil.parseToken(adulterado)).isInstanceOf(JwtException.class);
+	}
+
+	@Test
+	void validateTokenRecusaOutroUsuario() {
+		JwtUtil jwtUtil = new JwtUtil(100);
+		Claims claims = jwtUtil.parseToken(jwtUtil.generateToken(usuario));
+
+		UserDetails outro = User.withUsername("bia@example.com").password("x").authorities("USUARIO").build();
+
+		assertThat(jwtUtil.validateToken(claims, outro)).isFalse();
+	}
+
+}
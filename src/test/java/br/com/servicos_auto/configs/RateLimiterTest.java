@@ -0,0 +1,141 @@
+package br.com.servicos_auto.configs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Testa o GCRA com um relógio controlado (now explícito, em nanossegundos), sem Spring
+class RateLimiterTest {
+
+	private static final long SEGUNDO = Duration.ofSeconds(1).toNanos();
+
+	private static final long T0 = 1_000 * SEGUNDO;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private RateLimiter rateLimiter;
+
+	@BeforeEach
+	void setUp() {
+		// api listado antes de login: uma recusa em login precisa devolver a ficha de api
+		Map<String, RateLimitProperties.Group> groups = new LinkedHashMap<>();
+		groups.put("api", new RateLimitProperties.Group(List.of("/api/**"), 10, Duration.ofSeconds(10)));
+		groups.put("login", new RateLimitProperties.Group(List.of("/api/auth/login"), 3, Duration.ofSeconds(3)));
+		meterRegistry = new SimpleMeterRegistry();
+		rateLimiter = new RateLimiter(properties(groups), meterRegistry);
+	}
+
+	@Test
+	void permiteRajadaAteACapacidadeERecusaComTempoDeEspera() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0)).isZero();
+		}
+
+		assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0)).isEqualTo(SEGUNDO);
+		assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0 + SEGUNDO / 2))
+				.isEqualTo(SEGUNDO / 2);
+		assertThat(meterRegistry.get("http.server.rate-limited").tag("group", "login").counter().count())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void repoeUmaFichaPorIntervalo() {
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0);
+		}
+
+		assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0 + SEGUNDO)).isZero();
+		assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0 + SEGUNDO)).isEqualTo(SEGUNDO);
+		// Ocioso por period, o balde volta a estar cheio
+		for (int i = 0; i < 3; i++) {
+			assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0 + 4 * SEGUNDO)).isZero();
+		}
+	}
+
+	@Test
+	void recusaEmUmGrupoDevolveAsFichasDosOutros() {
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0);
+		}
+		for (int i = 0; i < 20; i++) {
+			assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0)).isPositive();
+		}
+
+		// Só os 3 logins aceitos consumiram de api: restam 7 fichas
+		for (int i = 0; i < 7; i++) {
+			assertThat(rateLimiter.tryAcquire("/api/anuncios", "10.0.0.1", null, T0)).isZero();
+		}
+		assertThat(rateLimiter.tryAcquire("/api/anuncios", "10.0.0.1", null, T0)).isPositive();
+		assertThat(meterRegistry.get("http.server.rate-limited").tag("group", "api").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void limitaOUsuarioEmQualquerIpEOIpEmQualquerUsuario() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0." + i, "ana@example.com", T0)).isZero();
+		}
+		assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.9", "ana@example.com", T0)).isPositive();
+
+		// O IP 10.0.0.9 não perdeu a ficha da tentativa recusada
+		for (int i = 0; i < 3; i++) {
+			assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.9", "bia" + i + "@example.com", T0)).isZero();
+		}
+		assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.9", "caio@example.com", T0)).isPositive();
+	}
+
+	@Test
+	void ipsAnonimosTemBaldesSeparados() {
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0);
+		}
+
+		assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.1", null, T0)).isPositive();
+		assertThat(rateLimiter.tryAcquire("/api/auth/login", "10.0.0.2", null, T0)).isZero();
+	}
+
+	@Test
+	void caminhoForaDosGruposNaoELimitado() {
+		for (int i = 0; i < 100; i++) {
+			assertThat(rateLimiter.tryAcquire("/actuator/health", "10.0.0.1", null, T0)).isZero();
+		}
+	}
+
+	@Test
+	void filtroRespondeTooManyRequestsComRetryAfterEmSegundos() throws Exception {
+		Map<String, RateLimitProperties.Group> groups = Map.of("login",
+				new RateLimitProperties.Group(List.of("/api/auth/login"), 1, Duration.ofMinutes(1)));
+		RateLimitFilter filter = new RateLimitFilter(properties(groups), new SimpleMeterRegistry());
+
+		MockHttpServletResponse primeira = executar(filter);
+		MockHttpServletResponse segunda = executar(filter);
+
+		assertThat(primeira.getStatus()).isEqualTo(200);
+		assertThat(segunda.getStatus()).isEqualTo(429);
+		assertThat(segunda.getHeader("Retry-After")).isEqualTo("60");
+	}
+
+	private static MockHttpServletResponse executar(RateLimitFilter filter) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+		request.setRemoteAddr("10.0.0.1");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private static RateLimitProperties properties(Map<String, RateLimitProperties.Group> groups) {
+		return new RateLimitProperties(true, Duration.ofMinutes(10), 10_000, groups);
+	}
+
+}
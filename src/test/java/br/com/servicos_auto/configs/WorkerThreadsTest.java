@@ -0,0 +1,40 @@
+package br.com.servicos_auto.configs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.jupiter.api.Test;
+
+class WorkerThreadsTest {
+
+	private static final Runnable NADA = () -> {
+	};
+
+	@Test
+	void criaThreadsVirtuaisNumeradasQuandoHabilitado() {
+		WorkerThreads workerThreads = new WorkerThreads(true);
+		ThreadFactory factory = workerThreads.factory("upload-worker-");
+
+		Thread primeira = factory.newThread(NADA);
+		Thread segunda = factory.newThread(NADA);
+
+		assertThat(workerThreads.isVirtual()).isTrue();
+		assertThat(primeira.isVirtual()).isTrue();
+		assertThat(primeira.getName()).isEqualTo("upload-worker-1");
+		assertThat(segunda.getName()).isEqualTo("upload-worker-2");
+	}
+
+	@Test
+	void criaThreadsDePlataformaPorPadrao() {
+		WorkerThreads workerThreads = new WorkerThreads(false);
+		ThreadFactory factory = workerThreads.factory("upload-batch-");
+
+		Thread thread = factory.newThread(NADA);
+
+		assertThat(workerThreads.isVirtual()).isFalse();
+		assertThat(thread.isVirtual()).isFalse();
+		assertThat(thread.getName()).isEqualTo("upload-batch-1");
+	}
+
+}
@@ -0,0 +1,194 @@
+package br.com.servicos_auto.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import br.com.servicos_auto.models.Anuncio;
+import br.com.servicos_auto.models.Image;
+import br.com.servicos_auto.models.PrestadorServico;
+import br.com.servicos_auto.models.Role;
+import br.com.servicos_auto.models.Usuario;
+import br.com.servicos_auto.repositories.PrestadorServicoRepository;
+import br.com.servicos_auto.repositories.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+// Garante que os GETs públicos executam um número fixo de SQLs (um por coleção do DTO),
+// qualquer que seja a quantidade de linhas. Roda contra um Postgres do Testcontainers (o
+// esquema usa tsvector e índices parciais), migrado pelo Flyway; precisa de Docker
+@Testcontainers
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"imgur.client-id=teste",
+		"imgur.client-secret=teste",
+		"imgur.refresh_token=teste" })
+@AutoConfigureMockMvc
+class GetEndpointsStatementCountTests {
+
+	@Container
+	@ServiceConnection
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	private static final AtomicLong DOCUMENTO = new AtomicLong(System.nanoTime() % 10_000_000_000L);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PrestadorServicoRepository prestadorServicoRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	private final List<PrestadorServico> prestadores = new ArrayList<>();
+	private final List<Usuario> usuarios = new ArrayList<>();
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterEach
+	void tearDown() {
+		prestadorServicoRepository.deleteAll(prestadores);
+		usuarioRepository.deleteAll(usuarios);
+		prestadores.clear();
+		usuarios.clear();
+	}
+
+	@Test
+	void listagemDeAnunciosNaoDependeDaQuantidadeDeLinhas() throws Exception {
+		criarPrestadores(2, 2);
+		long poucos = contarStatements("/api/anuncios?limit=100");
+		criarPrestadores(8, 4);
+		long muitos = contarStatements("/api/anuncios?limit=100");
+
+		assertThat(muitos).isEqualTo(poucos).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void listagemDePrestadoresNaoDependeDaQuantidadeDeLinhas() throws Exception {
+		criarPrestadores(2, 2);
+		long poucos = contarStatements("/api/prestadores?limit=100");
+		criarPrestadores(8, 4);
+		long muitos = contarStatements("/api/prestadores?limit=100");
+
+		assertThat(muitos).isEqualTo(poucos).isLessThanOrEqualTo(5);
+	}
+
+	@Test
+	void listagemDeUsuariosNaoDependeDaQuantidadeDeLinhas() throws Exception {
+		criarUsuarios(2);
+		long poucos = contarStatements("/api/usuarios?limit=100");
+		criarUsuarios(10);
+		long muitos = contarStatements("/api/usuarios?limit=100");
+
+		assertThat(muitos).isEqualTo(poucos).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void detalheDeAnuncioUsaNumeroFixoDeStatements() throws Exception {
+		criarPrestadores(1, 1);
+		Long anuncioId = prestadores.get(0).getAnuncios().get(0).getId();
+
+		assertThat(contarStatements("/api/anuncios/" + anuncioId)).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void detalheDePrestadorUsaNumeroFixoDeStatements() throws Exception {
+		criarPrestadores(1, 2);
+		long poucos = contarStatements("/api/prestadores/" + prestadores.get(0).getId());
+		criarPrestadores(1, 10);
+		long muitos = contarStatements("/api/prestadores/" + prestadores.get(1).getId());
+
+		assertThat(muitos).isEqualTo(poucos).isLessThanOrEqualTo(5);
+	}
+
+	@Test
+	void detalheDeUsuarioUsaNumeroFixoDeStatements() throws Exception {
+		criarUsuarios(1);
+
+		assertThat(contarStatements("/api/usuarios/" + usuarios.get(0).getId())).isLessThanOrEqualTo(3);
+	}
+
+	private long contarStatements(String url) throws Exception {
+		statistics.clear();
+		mockMvc.perform(get(url)).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void criarPrestadores(int quantidade, int anunciosPorPrestador) {
+		for (int i = 0; i < quantidade; i++) {
+			PrestadorServico prestador = new PrestadorServico();
+			prestador.setNome("Prestador " + i);
+			prestador.setEmail("prestador-" + UUID.randomUUID() + "@example.com");
+			prestador.setCpf(proximoCpf());
+			prestador.setSenha("senha123");
+			prestador.addRole(Role.PRESTADOR_SERVICO);
+			prestador.getImages().add(novaImagem(img -> img.setPrestadorServico(prestador)));
+
+			for (int j = 0; j < anunciosPorPrestador; j++) {
+				Anuncio anuncio = new Anuncio();
+				anuncio.setTitulo("Anuncio " + i + "-" + j);
+				anuncio.setDescricao("Descricao do anuncio de teste");
+				anuncio.setPrestadorServico(prestador);
+				anuncio.getImages().add(novaImagem(img -> img.setAnuncio(anuncio)));
+				anuncio.getImages().add(novaImagem(img -> img.setAnuncio(anuncio)));
+				prestador.getAnuncios().add(anuncio);
+			}
+
+			prestadores.add(prestadorServicoRepository.save(prestador));
+		}
+	}
+
+	private void criarUsuarios(int quantidade) {
+		for (int i = 0; i < quantidade; i++) {
+			Usuario usuario = new Usuario();
+			usuario.setNome("Usuario " + i);
+			usuario.setEmail("usuario-" + UUID.randomUUID() + "@example.com");
+			usuario.setCpf(proximoCpf());
+			usuario.setSenha("senha123");
+			usuario.addRole(Role.USUARIO);
+			usuario.getImages().add(novaImagem(img -> img.setUsuario(usuario)));
+			usuarios.add(usuarioRepository.save(usuario));
+		}
+	}
+
+	private Image novaImagem(Consumer<Image> dono) {
+		Image image = new Image();
+		image.setUrl("https://i.imgur.com/" + UUID.randomUUID() + ".jpg");
+		image.setType("image/jpeg");
+		dono.accept(image);
+		return image;
+	}
+
+	private static String proximoCpf() {
+		return String.format("%011d", DOCUMENTO.incrementAndGet() % 100_000_000_000L);
+	}
+
+}